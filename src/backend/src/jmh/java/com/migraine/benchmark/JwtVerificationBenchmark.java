@@ -0,0 +1,103 @@
+package com.migraine.benchmark;
+
+import com.migraine.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+
+import javax.crypto.SecretKey;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 驗證吞吐量基準測試（tokens/sec）
+ * legacy：每次呼叫重新解碼金鑰並建立 parser，驗證與取用戶名各做一次簽章驗證
+ * cached：啟動時建立的金鑰與 parser，每個 Token 只解析一次
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET =
+            "eW91ci1zZWNyZXQta2V5LWNoYW5nZS10aGlzLWluLXByb2R1Y3Rpb24tbWluLTI1Ni1iaXRzLWxvbmc=";
+
+    private JwtTokenProvider tokenProvider;
+    private String token;
+
+    @Setup
+    public void setup() {
+        tokenProvider = new JwtTokenProvider(SECRET, 3600000L);
+        User principal = new User("patient1@example.com", "", Collections.emptyList());
+        token = tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String legacy_1thread() {
+        return legacyVerify(token);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String legacy_4threads() {
+        return legacyVerify(token);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String legacy_8threads() {
+        return legacyVerify(token);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String cached_1thread() {
+        return cachedVerify(token);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String cached_4threads() {
+        return cachedVerify(token);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String cached_8threads() {
+        return cachedVerify(token);
+    }
+
+    private String cachedVerify(String jwt) {
+        return tokenProvider.parseToken(jwt).map(Claims::getSubject).orElse(null);
+    }
+
+    /**
+     * 重現原本 JwtAuthenticationFilter 的流程：validateToken + getUsernameFromToken
+     */
+    private static String legacyVerify(String jwt) {
+        Jwts.parser()
+                .verifyWith(legacySigningKey())
+                .build()
+                .parseSignedClaims(jwt);
+
+        return Jwts.parser()
+                .verifyWith(legacySigningKey())
+                .build()
+                .parseSignedClaims(jwt)
+                .getPayload()
+                .getSubject();
+    }
+
+    private static SecretKey legacySigningKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    }
+}
@@ -0,0 +1,106 @@
+package com.migraine.benchmark;
+
+import com.migraine.dto.HeadacheLogDTO;
+import com.migraine.entity.HeadacheLog;
+import com.migraine.entity.User;
+import com.migraine.mapper.HeadacheLogMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 實體 → DTO 映射層基準測試（純記憶體，不經資料庫）
+ * singleRow_*：每筆映射耗時，以 -prof gc 執行時 gc.alloc.rate.norm 即為每筆配置的位元組數
+ * list10k_*：10k 筆清單的吞吐量（lists/sec）
+ * handwritten 為原本服務層的 builder + stream 寫法，generated 為 MapStruct 產生的映射器
+ *
+ * mvn -Pjmh compile exec:exec -Djmh.args="Mapping -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    private static final int LIST_SIZE = 10_000;
+
+    private HeadacheLogMapper mapper;
+    private HeadacheLog row;
+    private List<HeadacheLog> rows;
+
+    @Setup
+    public void setup() {
+        mapper = Mappers.getMapper(HeadacheLogMapper.class);
+
+        User user = User.builder().id(42L).email("bench@example.com").name("bench").build();
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 8, 0);
+        rows = new ArrayList<>(LIST_SIZE);
+        for (int i = 0; i < LIST_SIZE; i++) {
+            rows.add(HeadacheLog.builder()
+                    .id((long) i)
+                    .user(user)
+                    .logDate(start.plusHours(i))
+                    .intensity(1 + i % 10)
+                    .symptoms("噁心,畏光")
+                    .medication("Sumatriptan 50mg")
+                    .notes("工作壓力大")
+                    .durationHours(i % 24)
+                    .location("左側太陽穴")
+                    .triggers("睡眠不足,咖啡因")
+                    .clientId("client-" + i)
+                    .createdAt(start)
+                    .updatedAt(start)
+                    .build());
+        }
+        row = rows.get(0);
+    }
+
+    @Benchmark
+    public HeadacheLogDTO singleRow_handwritten() {
+        return handwritten(row);
+    }
+
+    @Benchmark
+    public HeadacheLogDTO singleRow_generated() {
+        return mapper.toDTO(row);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public List<HeadacheLogDTO> list10k_handwritten() {
+        return rows.stream().map(MappingBenchmark::handwritten).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public List<HeadacheLogDTO> list10k_generated() {
+        return mapper.toDTOs(rows);
+    }
+
+    private static HeadacheLogDTO handwritten(HeadacheLog log) {
+        return HeadacheLogDTO.builder()
+                .id(log.getId())
+                .userId(log.getUser().getId())
+                .logDate(log.getLogDate())
+                .intensity(log.getIntensity())
+                .symptoms(log.getSymptoms())
+                .medication(log.getMedication())
+                .notes(log.getNotes())
+                .durationHours(log.getDurationHours())
+                .location(log.getLocation())
+                .triggers(log.getTriggers())
+                .clientId(log.getClientId())
+                .createdAt(log.getCreatedAt())
+                .updatedAt(log.getUpdatedAt())
+                .build();
+    }
+}
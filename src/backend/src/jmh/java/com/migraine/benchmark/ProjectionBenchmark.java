@@ -0,0 +1,154 @@
+package com.migraine.benchmark;
+
+import com.migraine.MigraineCareApplication;
+import com.migraine.dto.HealthScaleDTO;
+import com.migraine.entity.HealthScale;
+import com.migraine.repository.HealthScaleRepository;
+import com.migraine.service.HealthScaleService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 健康量表列表查詢：實體載入 vs DTO 投影 vs 摘要投影
+ * 以 -prof gc 執行可取得每次請求配置的位元組數（gc.alloc.rate.norm），
+ * 每個試驗結束時輸出 Hibernate 統計的每次請求實體載入數
+ *
+ * mvn -Pjmh compile exec:exec -Djmh.args="Projection -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProjectionBenchmark {
+
+    private static final int SCALES_PER_PATIENT = 500;
+
+    private ConfigurableApplicationContext context;
+    private HealthScaleRepository healthScaleRepository;
+    private HealthScaleService healthScaleService;
+    private TransactionTemplate readOnlyTx;
+    private Statistics statistics;
+    private long userId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(MigraineCareApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:projection;MODE=PostgreSQL;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.properties.hibernate.generate_statistics=true",
+                        "--spring.flyway.enabled=false",
+                        "--warmup.enabled=false",
+                        "--cors.allowed-origins=http://localhost",
+                        "--cors.allowed-methods=GET",
+                        "--cors.allowed-headers=*",
+                        "--logging.level.root=WARN");
+
+        healthScaleRepository = context.getBean(HealthScaleRepository.class);
+        healthScaleService = context.getBean(HealthScaleService.class);
+        readOnlyTx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTx.setReadOnly(true);
+        statistics = context.getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        jdbc.update("INSERT INTO users (email, password, name, role, is_active, created_at) " +
+                "VALUES ('bench@example.com', 'x', 'bench', 'PATIENT', TRUE, CURRENT_TIMESTAMP)");
+        userId = jdbc.queryForObject("SELECT id FROM users WHERE email = 'bench@example.com'", Long.class);
+
+        // 模擬真實量表：answers 約 2 KB JSON、interpretation 約 1 KB 文字
+        String answers = "{\"answers\":[" + "3,".repeat(680) + "3]}";
+        String interpretation = "判讀".repeat(500);
+        HealthScale.ScaleType[] types = HealthScale.ScaleType.values();
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 9, 0);
+
+        List<Object[]> rows = new ArrayList<>(SCALES_PER_PATIENT);
+        for (int i = 0; i < SCALES_PER_PATIENT; i++) {
+            rows.add(new Object[]{
+                    userId, types[i % types.length].name(), Timestamp.valueOf(start.plusDays(i)),
+                    i % 40, "MODERATE", answers, interpretation
+            });
+        }
+        jdbc.batchUpdate("INSERT INTO health_scales " +
+                "(user_id, scale_type, test_date, score, level, answers, interpretation, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)", rows);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStatistics() {
+        statistics.clear();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportStatistics() {
+        long requests = Math.max(1, statistics.getQueryExecutionCount());
+        System.out.printf("%n  rows/request: %d, entities loaded/request: %d%n",
+                SCALES_PER_PATIENT, statistics.getEntityLoadCount() / requests);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * 原本的做法：載入受管實體後逐筆轉換為 DTO
+     */
+    @Benchmark
+    public List<HealthScaleDTO> entityThenConvert() {
+        return readOnlyTx.execute(status -> healthScaleRepository.findByUserIdOrderByTestDateDesc(userId)
+                .stream()
+                .map(scale -> HealthScaleDTO.builder()
+                        .id(scale.getId())
+                        .userId(scale.getUser().getId())
+                        .scaleType(scale.getScaleType().name())
+                        .testDate(scale.getTestDate())
+                        .score(scale.getScore())
+                        .level(scale.getLevel())
+                        .answers(scale.getAnswers())
+                        .interpretation(scale.getInterpretation())
+                        .createdAt(scale.getCreatedAt())
+                        .build())
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * 直接呼叫投影查詢（服務層的 getUserScales 會命中歷史快取，不代表查詢成本）
+     */
+    @Benchmark
+    public Object dtoProjection() {
+        return readOnlyTx.execute(status -> healthScaleRepository.findDTOsByUserId(userId));
+    }
+
+    @Benchmark
+    public Object summaryProjection() {
+        return healthScaleService.getUserScaleSummaries(userId);
+    }
+}
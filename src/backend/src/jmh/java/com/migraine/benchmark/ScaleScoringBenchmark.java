@@ -0,0 +1,80 @@
+package com.migraine.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.migraine.entity.HealthScale;
+import com.migraine.scoring.ScaleDefinition;
+import com.migraine.scoring.ScaleScore;
+import com.migraine.scoring.ScaleScoringEngine;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 量表計分基準測試（純記憶體，HADS 14 題）
+ * compiled 為 ScaleScoringEngine 的陣列計分表（串流解析答案，不建立 Map）；
+ * interpreted 為每次以 ObjectMapper 將答案讀成 Map，再逐題走訪 ScaleDefinition 的 List 並以題目代號查表
+ *
+ * mvn -Pjmh compile exec:exec -Djmh.args="ScaleScoring -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScaleScoringBenchmark {
+
+    private static final String ANSWERS = "{\"q1\":\"3\",\"q2\":\"0\",\"q3\":\"3\",\"q4\":\"1\",\"q5\":\"2\","
+            + "\"q6\":\"0\",\"q7\":\"3\",\"q8\":\"0\",\"q9\":\"1\",\"q10\":\"0\",\"q11\":\"2\",\"q12\":\"0\","
+            + "\"q13\":\"3\",\"q14\":\"0\"}";
+
+    private ObjectMapper objectMapper;
+    private ScaleScoringEngine engine;
+    private ScaleDefinition definition;
+
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = new ObjectMapper();
+        engine = new ScaleScoringEngine(objectMapper);
+        try (InputStream in = new ClassPathResource("scoring/HADS.json").getInputStream()) {
+            definition = objectMapper.readValue(in, ScaleDefinition.class);
+        }
+    }
+
+    @Benchmark
+    public ScaleScore compiled() {
+        return engine.score(HealthScale.ScaleType.HADS, ANSWERS);
+    }
+
+    @Benchmark
+    public ScaleScore interpreted() throws Exception {
+        Map<String, Object> answers = objectMapper.readValue(ANSWERS, new TypeReference<>() {
+        });
+        int total = 0;
+        int highest = 0;
+        for (ScaleDefinition.Component component : definition.getComponents()) {
+            int sum = 0;
+            for (String key : component.getItems()) {
+                ScaleDefinition.Item item = definition.getItems().stream()
+                        .filter(candidate -> candidate.getKey().equals(key))
+                        .findFirst()
+                        .orElseThrow();
+                int[] points = item.getPoints() != null ? item.getPoints() : definition.getPoints();
+                sum += points[Integer.parseInt(String.valueOf(answers.get(key)))];
+            }
+            total += sum;
+            highest = Math.max(highest, sum);
+        }
+        ScaleDefinition.Level level = definition.getLevels().get(0);
+        for (ScaleDefinition.Level candidate : definition.getLevels()) {
+            if (highest >= candidate.getMin()) {
+                level = candidate;
+            }
+        }
+        return new ScaleScore(total, level.getCode(), level.getInterpretation(), definition.getVersion());
+    }
+}
@@ -0,0 +1,53 @@
+#!/usr/bin/env bash
+# 平台執行緒 vs 虛擬執行緒壓力測試
+#
+# 需求：以 mvn -Pjava21 package 建置的 JAR、JDK 21（JAVA_HOME），以及可連線的 PostgreSQL
+#   SPRING_DATASOURCE_URL / SPRING_DATASOURCE_USERNAME / SPRING_DATASOURCE_PASSWORD 指向測試資料庫
+#
+# 用法：src/loadtest/compare.sh [concurrency] [duration秒]
+set -euo pipefail
+
+cd "$(dirname "$0")/../.."
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+JAR=$(ls target/migraine-care-system-*.jar | head -1)
+CONCURRENCY="${1:-400}"
+DURATION="${2:-30}"
+BASE="http://localhost:8080/api"
+LOGS=500
+
+run_mode() {
+    local label="$1"; shift
+    "$JAVA" ${JVM_OPTS:-} -jar "$JAR" --spring.jpa.show-sql=false --logging.level.root=WARN "$@" > "target/loadtest-$label.log" 2>&1 &
+    local pid=$!
+    trap "kill $pid 2>/dev/null || true" RETURN
+
+    for _ in $(seq 1 120); do
+        curl -sf "$BASE/auth/health" > /dev/null && break
+        sleep 1
+    done
+
+    local email="loadtest-$label-$(date +%s)@example.com"
+    local response token user_id
+    response=$(curl -sf -XPOST "$BASE/auth/register" -H 'Content-Type: application/json' \
+        -d "{\"email\":\"$email\",\"password\":\"loadtest\",\"name\":\"loadtest\",\"role\":\"PATIENT\"}")
+    token=$(echo "$response" | sed -E 's/.*"token":"([^"]+)".*/\1/')
+    user_id=$(echo "$response" | sed -E 's/.*"user":\{"id":([0-9]+).*/\1/')
+
+    local logs=""
+    for i in $(seq 1 $LOGS); do
+        logs+="{\"logDate\":\"$(date -d "-$i day" +%Y-%m-%dT08:00:00)\",\"intensity\":$((i % 10 + 1)),\"triggers\":\"壓力,睡眠不足\"},"
+    done
+    curl -sf -o /dev/null -XPOST "$BASE/headache-logs/batch" -H "Authorization: Bearer $token" \
+        -H 'Content-Type: application/json' -d "{\"userId\":$user_id,\"logs\":[${logs%,}]}"
+
+    "$JAVA" src/loadtest/java/com/migraine/loadtest/LoadTest.java \
+        --url "$BASE/headache-logs/my-logs/page?userId=$user_id&size=50" --token "$token" \
+        --concurrency "$CONCURRENCY" --duration "$DURATION" --warmup 10 --label "$label"
+
+    # 虛擬執行緒釘住事件（-Djdk.tracePinnedThreads 的輸出）
+    grep -A3 "pinned" "target/loadtest-$label.log" | head -20 || true
+}
+
+# test profile：超過 @StatementBudget 的請求直接失敗，壓力測試同時檢查查詢數
+run_mode platform --spring.profiles.active=test
+JVM_OPTS="-Djdk.tracePinnedThreads=short" run_mode virtual --spring.profiles.active=test,virtual-threads
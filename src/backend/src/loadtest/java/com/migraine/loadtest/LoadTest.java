@@ -0,0 +1,147 @@
+package com.migraine.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 封閉式 HTTP 壓力測試（每個客戶端連線完成一個請求後立即送出下一個）
+ * 輸出吞吐量與 p50 / p90 / p99 延遲，用來比較平台執行緒與虛擬執行緒模式
+ *
+ * java src/loadtest/java/com/migraine/loadtest/LoadTest.java \
+ *   --url "http://localhost:8080/api/headache-logs/my-logs/page?userId=1" --token <JWT> \
+ *   --concurrency 400 --duration 30 --warmup 10 --label virtual
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        String url = required(options, "url");
+        String token = options.get("token");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "200"));
+        long durationSeconds = Long.parseLong(options.getOrDefault("duration", "30"));
+        long warmupSeconds = Long.parseLong(options.getOrDefault("warmup", "10"));
+        String label = options.getOrDefault("label", "run");
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(4))
+                .build();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        HttpRequest request = builder.build();
+
+        System.out.printf("[%s] warm-up %ds with %d clients%n", label, warmupSeconds, concurrency);
+        run(client, request, concurrency, TimeUnit.SECONDS.toNanos(warmupSeconds));
+
+        System.out.printf("[%s] measuring %ds with %d clients%n", label, durationSeconds, concurrency);
+        long measureNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        List<Result> results = run(client, request, concurrency, measureNanos);
+        report(label, concurrency, measureNanos, results);
+        System.exit(0);
+    }
+
+    private static List<Result> run(HttpClient client, HttpRequest request, int concurrency, long durationNanos)
+            throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        long deadline = System.nanoTime() + durationNanos;
+        List<Future<Result>> futures = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(clients.submit(() -> {
+                Result result = new Result();
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            result.errors++;
+                        }
+                    } catch (Exception ex) {
+                        result.errors++;
+                    }
+                    result.add(System.nanoTime() - start);
+                }
+                return result;
+            }));
+        }
+
+        List<Result> results = new ArrayList<>(concurrency);
+        for (Future<Result> future : futures) {
+            results.add(future.get());
+        }
+        clients.shutdown();
+        return results;
+    }
+
+    private static void report(String label, int concurrency, long durationNanos, List<Result> results) {
+        int total = results.stream().mapToInt(r -> r.count).sum();
+        long errors = results.stream().mapToLong(r -> r.errors).sum();
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (Result result : results) {
+            System.arraycopy(result.latencies, 0, latencies, offset, result.count);
+            offset += result.count;
+        }
+        Arrays.sort(latencies);
+
+        double seconds = durationNanos / 1e9;
+        System.out.printf("[%s] clients=%d requests=%d errors=%d throughput=%.1f req/s " +
+                        "p50=%.1fms p90=%.1fms p99=%.1fms max=%.1fms%n",
+                label, concurrency, total, errors, total / seconds,
+                percentile(latencies, 50), percentile(latencies, 90), percentile(latencies, 99),
+                total == 0 ? 0 : latencies[total - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+
+    private static String required(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing --" + name);
+        }
+        return value;
+    }
+
+    private static final class Result {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        private void add(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+}
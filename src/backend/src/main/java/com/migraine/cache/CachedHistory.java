@@ -0,0 +1,11 @@
+package com.migraine.cache;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 快取的病患歷史資料與其強 ETag（載入時依內容計算一次，之後的條件請求不需再序列化）
+ * version 為載入時共用層的用戶版本號（沒有共用層時為 0）
+ */
+public record CachedHistory<T>(List<T> items, String etag, long version) implements Serializable {
+}
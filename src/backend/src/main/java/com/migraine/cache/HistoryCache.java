@@ -0,0 +1,151 @@
+package com.migraine.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 以用戶 ID 為鍵的病患歷史讀取快取
+ * 第一層為行程內 Caffeine（有容量上限），第二層為選用的 SharedCacheTier；
+ * 資料異動時在交易提交後清除快取，避免提交前被其他請求以舊資料回填。
+ *
+ * 多節點一致性：
+ * - 有共用層時，每位用戶在共用層有一個版本號，異動提交後遞增；快取項目記錄載入時的版本，
+ *   讀取時（含第一層命中）與目前版本比對，不同即重新載入。因此其他節點不會在本機 TTL 內回應舊資料，
+ *   異動前開始載入的節點晚一步回填的舊資料也會因版本不符而被略過
+ * - 沒有共用層時只在單一節點上快取；設定多個節點（cache.history.instances > 1）時改為每次直接讀取
+ */
+public class HistoryCache<T> {
+
+    private final String name;
+    private final Cache<Long, CachedHistory<T>> localCache;
+    private final SharedCacheTier sharedTier;
+    private final Duration sharedTtl;
+    private final boolean enabled;
+    private final Function<T, List<?>> etagFields;
+
+    /**
+     * @param sharedTier 為 null 時只使用第一層
+     * @param enabled    false 時不快取（多節點但沒有共用層），每次呼叫 loader
+     * @param etagFields 計算 ETag 的欄位（明確列出，不依賴 toString 的格式）
+     */
+    public HistoryCache(String name, long maximumSize, Duration localTtl, SharedCacheTier sharedTier, Duration sharedTtl,
+                        boolean enabled, Function<T, List<?>> etagFields) {
+        this.name = name;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+        this.sharedTier = sharedTier;
+        this.sharedTtl = sharedTtl;
+        this.enabled = enabled;
+        this.etagFields = etagFields;
+    }
+
+    /**
+     * 讀取用戶歷史，快取未命中或版本過期時呼叫 loader 並回填
+     */
+    public CachedHistory<T> get(Long userId, Supplier<List<T>> loader) {
+        if (!enabled) {
+            return load(loader, 0L);
+        }
+        if (sharedTier == null) {
+            return localCache.get(userId, id -> load(loader, 0L));
+        }
+
+        long version = sharedTier.currentVersion(versionKey(userId));
+        CachedHistory<T> local = localCache.getIfPresent(userId);
+        if (local != null && local.version() == version) {
+            return local;
+        }
+
+        CachedHistory<T> history = sharedHistory(userId, version);
+        if (history == null) {
+            history = load(loader, version);
+            sharedTier.put(sharedKey(userId), history, sharedTtl);
+        }
+        localCache.put(userId, history);
+        return history;
+    }
+
+    @SuppressWarnings("unchecked")
+    private CachedHistory<T> sharedHistory(Long userId, long version) {
+        Object shared = sharedTier.get(sharedKey(userId)).orElse(null);
+        if (shared instanceof CachedHistory<?> history && history.version() == version) {
+            return (CachedHistory<T>) history;
+        }
+        return null;
+    }
+
+    private CachedHistory<T> load(Supplier<List<T>> loader, long version) {
+        List<T> items = loader.get();
+        return new CachedHistory<>(List.copyOf(items), computeEtag(items), version);
+    }
+
+    /**
+     * 清除用戶歷史；在交易中呼叫時延後到提交之後執行
+     */
+    public void evict(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(userId);
+                }
+            });
+        } else {
+            evictNow(userId);
+        }
+    }
+
+    private void evictNow(Long userId) {
+        localCache.invalidate(userId);
+        if (sharedTier != null) {
+            // 先遞增版本：其他節點的第一層與之後才回填的舊資料都因版本不符而失效
+            sharedTier.incrementVersion(versionKey(userId));
+            sharedTier.evict(sharedKey(userId));
+        }
+    }
+
+    public Cache<Long, CachedHistory<T>> getLocalCache() {
+        return localCache;
+    }
+
+    private String sharedKey(Long userId) {
+        return name + ":" + userId;
+    }
+
+    private String versionKey(Long userId) {
+        return name + ":version:" + userId;
+    }
+
+    /**
+     * 以 etagFields 列出的欄位計算強 ETag（欄位以 0x1F 分隔、每筆以換行結尾，null 與空字串可區分）
+     */
+    private String computeEtag(List<T> items) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (T item : items) {
+                for (Object field : etagFields.apply(item)) {
+                    digest.update(field == null ? new byte[]{0} : String.valueOf(field).getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) 0x1f);
+                }
+                digest.update((byte) '\n');
+            }
+            return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.migraine.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 第二層快取的本機替身（cache.shared.type=local），供測試與單機開發驗證兩層快取的行為
+ */
+@Component
+@ConditionalOnProperty(name = "cache.shared.type", havingValue = "local")
+public class LocalSharedCacheTier implements SharedCacheTier {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<Object> get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (System.nanoTime() - entry.expiresAt() > 0) {
+            entries.remove(key, entry);
+            return Optional.empty();
+        }
+        return Optional.of(entry.value());
+    }
+
+    @Override
+    public void put(String key, Object value, Duration ttl) {
+        entries.put(key, new Entry(value, System.nanoTime() + ttl.toNanos()));
+    }
+
+    @Override
+    public void evict(String key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public long currentVersion(String key) {
+        return versions.getOrDefault(key, 0L);
+    }
+
+    @Override
+    public long incrementVersion(String key) {
+        return versions.merge(key, 1L, Long::sum);
+    }
+
+    private record Entry(Object value, long expiresAt) {
+    }
+}
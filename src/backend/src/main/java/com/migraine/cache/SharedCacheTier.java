@@ -0,0 +1,27 @@
+package com.migraine.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * 跨節點共用的第二層快取（如 Redis）
+ * 未提供實作時只使用各節點的行程內快取
+ */
+public interface SharedCacheTier {
+
+    Optional<Object> get(String key);
+
+    void put(String key, Object value, Duration ttl);
+
+    void evict(String key);
+
+    /**
+     * 目前的版本號，不存在時為 0
+     */
+    long currentVersion(String key);
+
+    /**
+     * 原子遞增版本號（如 Redis INCR），回傳遞增後的值；版本號的保存時間須長於快取項目的 TTL
+     */
+    long incrementVersion(String key);
+}
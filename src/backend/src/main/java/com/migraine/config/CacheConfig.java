@@ -0,0 +1,76 @@
+package com.migraine.config;
+
+import com.migraine.cache.HistoryCache;
+import com.migraine.cache.SharedCacheTier;
+import com.migraine.dto.HeadacheLogDTO;
+import com.migraine.dto.HealthScaleDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 快取配置（Caffeine，設定見 application.yml 的 spring.cache 與 cache.history）
+ */
+@Slf4j
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /** JWT 過濾器載入的 UserDetails（以 email 為鍵，不含密碼雜湊） */
+    public static final String USER_DETAILS_CACHE = "userDetails";
+
+    @Value("${cache.history.maximum-size:2000}")
+    private long historyMaximumSize;
+
+    @Value("${cache.history.local-ttl:10m}")
+    private Duration historyLocalTtl;
+
+    @Value("${cache.history.shared-ttl:1h}")
+    private Duration historySharedTtl;
+
+    @Value("${cache.history.instances:1}")
+    private int instances;
+
+    /** 病患頭痛日誌歷史 */
+    @Bean
+    public HistoryCache<HeadacheLogDTO> headacheLogHistoryCache(
+            ObjectProvider<SharedCacheTier> sharedTier, MeterRegistry meterRegistry) {
+        // updatedAt 隨每次修改與軟刪除更新，已刪除的日誌不在清單內
+        return historyCache("headacheLogHistory", sharedTier, meterRegistry,
+                log -> List.of(log.getId(), String.valueOf(log.getUpdatedAt())));
+    }
+
+    /** 病患健康量表歷史 */
+    @Bean
+    public HistoryCache<HealthScaleDTO> healthScaleHistoryCache(
+            ObjectProvider<SharedCacheTier> sharedTier, MeterRegistry meterRegistry) {
+        // 量表沒有 updatedAt，重新計分會改變分數、等級與判讀，因此列出所有回應欄位
+        return historyCache("healthScaleHistory", sharedTier, meterRegistry,
+                scale -> Arrays.asList(scale.getId(), scale.getScaleType(), scale.getTestDate(), scale.getScore(),
+                        scale.getLevel(), scale.getAnswers(), scale.getInterpretation()));
+    }
+
+    private <T> HistoryCache<T> historyCache(String name, ObjectProvider<SharedCacheTier> sharedTier,
+                                             MeterRegistry meterRegistry, Function<T, List<?>> etagFields) {
+        SharedCacheTier tier = sharedTier.getIfAvailable();
+        // 只有行程內快取時，其他節點看不到本節點的清除，多節點部署改為每次直接讀取
+        boolean enabled = tier != null || instances <= 1;
+        if (!enabled) {
+            log.warn("{} cache disabled: cache.history.instances={} without a shared cache tier", name, instances);
+        }
+        HistoryCache<T> cache = new HistoryCache<>(
+                name, historyMaximumSize, historyLocalTtl, tier, historySharedTtl, enabled, etagFields);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.getLocalCache(), name);
+        return cache;
+    }
+}
@@ -0,0 +1,121 @@
+package com.migraine.config;
+
+import com.migraine.dto.FrequencyDTO;
+import com.migraine.dto.HeadacheLogDTO;
+import com.migraine.dto.HealthScaleDTO;
+import com.migraine.dto.HealthScaleSummaryDTO;
+import com.migraine.dto.LatestScaleScoreDTO;
+import com.migraine.dto.MonthlyHeadacheStatsDTO;
+import com.migraine.dto.PatientHeadacheSummaryDTO;
+import com.migraine.dto.PatientRosterDTO;
+import com.migraine.entity.HeadacheDailyRollup;
+import com.migraine.entity.HeadacheLog;
+import com.migraine.entity.HeadacheLogTag;
+import com.migraine.entity.HeadacheMonthlyRollup;
+import com.migraine.entity.HeadacheTag;
+import com.migraine.entity.HealthScale;
+import com.migraine.entity.RefreshToken;
+import com.migraine.entity.User;
+import com.migraine.entity.listener.UserChangeListener;
+import com.migraine.repository.projection.HeadacheLogTombstone;
+import com.migraine.repository.projection.UserAccountStatus;
+import com.migraine.scoring.ScaleDefinition;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.data.projection.TargetAware;
+
+import java.util.List;
+
+/**
+ * GraalVM 原生映像的反射、代理與資源提示（mvn -Pnative native:compile）
+ * 只在 AOT 處理時讀取並寫入 META-INF/native-image，JVM 模式執行時不做任何事
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHintsConfig.MigraineRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class MigraineRuntimeHints implements RuntimeHintsRegistrar {
+
+        /** Hibernate 以欄位存取讀寫，並以無參數建構子與 getter 建立 / 操作 LAZY 代理（Lombok 產生的成員） */
+        private static final List<Class<?>> ENTITIES = List.of(
+                User.class, HeadacheLog.class, HealthScale.class, RefreshToken.class, HeadacheTag.class,
+                HeadacheLogTag.class, HeadacheLogTag.Key.class,
+                HeadacheDailyRollup.class, HeadacheDailyRollup.Key.class,
+                HeadacheMonthlyRollup.class, HeadacheMonthlyRollup.Key.class,
+                UserChangeListener.class);
+
+        /** @Enumerated(STRING) 與字串參數以 Enum.valueOf 綁定 */
+        private static final List<Class<?>> ENUMS = List.of(
+                HealthScale.ScaleType.class, User.UserRole.class, HeadacheTag.Category.class);
+
+        /** JPQL「SELECT new」與 @ConstructorResult 以反射呼叫建構子 */
+        private static final List<Class<?>> CONSTRUCTOR_RESULTS = List.of(
+                HeadacheLogDTO.class, HealthScaleDTO.class, HealthScaleSummaryDTO.class, LatestScaleScoreDTO.class,
+                FrequencyDTO.class, MonthlyHeadacheStatsDTO.class, PatientHeadacheSummaryDTO.class,
+                PatientRosterDTO.class);
+
+        /** Spring Data 介面投影以 JDK 代理實作 */
+        private static final List<Class<?>> PROJECTIONS = List.of(
+                HeadacheLogTombstone.class, UserAccountStatus.class);
+
+        /** jjwt-api 以類別名稱反射載入 jjwt-impl 的實作，序列化器經 ServiceLoader 取得 */
+        private static final List<String> JJWT_IMPLEMENTATIONS = List.of(
+                "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+                "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+                "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+                "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder",
+                "io.jsonwebtoken.impl.security.DefaultJwkSetBuilder",
+                "io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder",
+                "io.jsonwebtoken.impl.security.DefaultKeyOperationBuilder",
+                "io.jsonwebtoken.impl.security.DefaultKeyOperationPolicyBuilder",
+                "io.jsonwebtoken.impl.security.JwksBridge",
+                "io.jsonwebtoken.impl.security.KeysBridge",
+                "io.jsonwebtoken.impl.security.StandardCurves",
+                "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+                "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+                "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+                "io.jsonwebtoken.impl.security.StandardKeyOperations",
+                "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+                "io.jsonwebtoken.jackson.io.JacksonSerializer",
+                "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            ENTITIES.forEach(type -> hints.reflection().registerType(type,
+                    MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS));
+
+            ENUMS.forEach(type -> hints.reflection().registerType(type,
+                    MemberCategory.PUBLIC_FIELDS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS));
+
+            CONSTRUCTOR_RESULTS.forEach(type -> hints.reflection().registerType(type,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS));
+
+            PROJECTIONS.forEach(type -> hints.proxies().registerJdkProxy(
+                    AopProxyUtils.completeJdkProxyInterfaces(type, TargetAware.class)));
+
+            JJWT_IMPLEMENTATIONS.forEach(name -> hints.reflection().registerTypeIfPresent(classLoader, name,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS));
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.*");
+
+            hints.resources().registerPattern("db/migration/*.sql");
+            hints.resources().registerPattern("db/seed/*.sql");
+
+            // 量表計分定義於啟動時以 ObjectMapper 讀入 ScaleDefinition（含巢狀類別）
+            new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), ScaleDefinition.class);
+            hints.resources().registerPattern("scoring/*.json");
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.migraine.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 排程配置（定時任務見 com.migraine.job）
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
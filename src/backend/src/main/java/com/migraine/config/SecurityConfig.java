@@ -1,21 +1,30 @@
 package com.migraine.config;
 
+import com.migraine.security.DigestPasswordEncoder;
 import com.migraine.security.JwtAuthenticationEntryPoint;
 import com.migraine.security.JwtAuthenticationFilter;
+import com.migraine.security.PooledPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
@@ -31,8 +40,69 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
     private final UserDetailsService userDetailsService;
+    private final UserDetailsPasswordService userDetailsPasswordService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Value("${security.password.pool-size:0}") // 0 代表 CPU 核心數
+    private int hashingPoolSize;
+
+    @Value("${security.password.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    @Value("${security.password.wait-timeout:5000}")
+    private long hashingWaitTimeout;
+
+    @Value("${monitoring.scrape.username:prometheus}")
+    private String scrapeUsername;
+
+    @Value("${monitoring.scrape.password:}") // 未設定時只開放 health / info
+    private String scrapePassword;
+
+    private static final String MONITORING_ROLE = "MONITORING";
+
+    /**
+     * Actuator 端點：health（含 liveness / readiness）與 info 公開，
+     * metrics / prometheus 需以 monitoring.scrape.* 帳號 HTTP Basic 認證（Prometheus basic_auth）
+     * 過濾鏈只在 Web 應用建立：遷移任務（migrate profile）沒有 Spring MVC，無法比對路徑
+     */
+    @Bean
+    @Order(1)
+    @ConditionalOnWebApplication
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http) throws Exception {
+        // 抓取帳號使用獨立的摘要比對，每次抓取不佔用登入共用的 BCrypt 執行緒池
+        DigestPasswordEncoder scrapeEncoder = new DigestPasswordEncoder();
+        InMemoryUserDetailsManager scrapeUsers = new InMemoryUserDetailsManager();
+        if (!scrapePassword.isBlank()) {
+            scrapeUsers.createUser(User.withUsername(scrapeUsername)
+                    .password(scrapeEncoder.encode(scrapePassword))
+                    .roles(MONITORING_ROLE)
+                    .build());
+        }
+        DaoAuthenticationProvider scrapeProvider = new DaoAuthenticationProvider();
+        scrapeProvider.setUserDetailsService(scrapeUsers);
+        scrapeProvider.setPasswordEncoder(scrapeEncoder);
+
+        http
+            .securityMatcher("/actuator/**")
+            .csrf(csrf -> csrf.disable())
+            .authorizeHttpRequests(auth -> auth
+                .requestMatchers("/actuator/health", "/actuator/health/**", "/actuator/info").permitAll()
+                .anyRequest().hasRole(MONITORING_ROLE)
+            )
+            .httpBasic(Customizer.withDefaults())
+            .sessionManagement(session -> session
+                .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+            )
+            .authenticationManager(new ProviderManager(scrapeProvider));
+        return http.build();
+    }
 
     @Bean
+    @Order(2)
+    @ConditionalOnWebApplication
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
@@ -41,7 +111,6 @@ public class SecurityConfig {
                 // 公開端點
                 .requestMatchers("/auth/**").permitAll()
                 .requestMatchers("/h2-console/**").permitAll()
-                .requestMatchers("/actuator/**").permitAll()
                 // 需要認證的端點
                 .requestMatchers("/users/**").authenticated()
                 .requestMatchers("/headache-logs/**").authenticated()
@@ -70,6 +139,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // 雜湊 cost 與設定不同時，登入成功後自動以新 cost 重新雜湊
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
         return authProvider;
     }
 
@@ -79,7 +150,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PooledPasswordEncoder passwordEncoder() {
+        return new PooledPasswordEncoder(
+                bcryptStrength, hashingPoolSize, hashingQueueCapacity, hashingWaitTimeout, meterRegistry);
     }
 }
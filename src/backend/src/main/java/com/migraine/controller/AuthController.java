@@ -3,6 +3,7 @@ package com.migraine.controller;
 import com.migraine.dto.AuthRequest;
 import com.migraine.dto.AuthResponse;
 import com.migraine.dto.RegisterRequest;
+import com.migraine.monitoring.StatementBudget;
 import com.migraine.service.AuthService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -13,6 +14,7 @@ import org.springframework.web.bind.annotation.*;
  * 認證控制器
  */
 @RestController
+@StatementBudget(4)  // 登入：驗證時查詢用戶、可能的密碼重新雜湊 UPDATE、再查詢一次用戶；註冊：檢查 Email、INSERT（IDENTITY 主鍵由 INSERT 取回）
 @RequestMapping("/auth")
 @RequiredArgsConstructor
 public class AuthController {
@@ -1,20 +1,36 @@
 package com.migraine.controller;
 
+import com.migraine.cache.CachedHistory;
+import com.migraine.dto.CursorPageDTO;
+import com.migraine.dto.HeadacheLogBatchRequest;
+import com.migraine.dto.HeadacheLogBatchResponse;
+import com.migraine.dto.HeadacheLogChangesDTO;
 import com.migraine.dto.HeadacheLogDTO;
+import com.migraine.monitoring.StatementBudget;
 import com.migraine.service.HeadacheLogService;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 
 /**
  * 頭痛日誌控制器
  */
 @RestController
+@StatementBudget(3)  // 讀取端點：單一查詢，另保留一條給帳號狀態檢查
 @RequestMapping("/headache-logs")
 @RequiredArgsConstructor
 public class HeadacheLogController {
@@ -24,6 +40,7 @@ public class HeadacheLogController {
     /**
      * 創建頭痛日誌
      */
+    @StatementBudget(20)
     @PostMapping
     public ResponseEntity<HeadacheLogDTO> createLog(
             Authentication authentication,
@@ -35,11 +52,84 @@ public class HeadacheLogController {
     }
 
     /**
-     * 獲取當前用戶的所有日誌
+     * 批次創建頭痛日誌（離線日誌同步，帶 clientId 的日誌可安全重送）
+     */
+    @StatementBudget(30)
+    @PostMapping("/batch")
+    public ResponseEntity<HeadacheLogBatchResponse> createLogs(@Valid @RequestBody HeadacheLogBatchRequest request) {
+        return ResponseEntity.ok(headacheLogService.createLogs(request.getUserId(), request.getLogs()));
+    }
+
+    /**
+     * 獲取當前用戶的所有日誌（If-None-Match 與目前 ETag 相同時回應 304）
      */
     @GetMapping("/my-logs")
-    public ResponseEntity<List<HeadacheLogDTO>> getMyLogs(@RequestParam Long userId) {
-        return ResponseEntity.ok(headacheLogService.getUserLogs(userId));
+    public ResponseEntity<List<HeadacheLogDTO>> getMyLogs(@RequestParam Long userId, WebRequest webRequest) {
+        CachedHistory<HeadacheLogDTO> history = headacheLogService.getUserLogHistory(userId);
+        if (webRequest.checkNotModified(history.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(history.etag())
+                .body(history.items());
+    }
+
+    /**
+     * 增量同步：since 之後的新增、修改與刪除標記
+     * 未帶 since 時改用 If-Modified-Since 標頭（回應的 Last-Modified），期間無異動回應 304
+     * 不回傳 ResponseEntity：Spring 會再以只到秒的 Last-Modified 比對 If-Modified-Since，
+     * 把同一秒內的異動誤判為 304；是否有異動只依查詢結果決定
+     */
+    @GetMapping("/my-logs/changes")
+    public HeadacheLogChangesDTO getMyLogChanges(
+            @RequestParam Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestHeader HttpHeaders headers,
+            HttpServletResponse response
+    ) {
+        boolean conditional = since == null;
+        if (conditional) {
+            long ifModifiedSince = headers.getIfModifiedSince();
+            if (ifModifiedSince < 0) {
+                throw new RuntimeException("缺少 since 參數或 If-Modified-Since 標頭");
+            }
+            since = LocalDateTime.ofInstant(Instant.ofEpochMilli(ifModifiedSince), ZoneId.systemDefault());
+        }
+
+        HeadacheLogChangesDTO changes = headacheLogService.getChangesSince(userId, since);
+        if (conditional && changes.getChanged().isEmpty() && changes.getDeleted().isEmpty()) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return null;
+        }
+
+        // HTTP 日期只到秒，進位到下一秒；同步往回重疊的時間涵蓋進位的差距
+        long syncedAt = changes.getSyncedAt().atZone(ZoneId.systemDefault()).toEpochSecond() + 1;
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, syncedAt * 1000);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        return changes;
+    }
+
+    /**
+     * 游標分頁獲取當前用戶的日誌（cursor 為上一頁回傳的 nextCursor）
+     */
+    @GetMapping("/my-logs/page")
+    public ResponseEntity<CursorPageDTO<HeadacheLogDTO>> getMyLogsPage(
+            @RequestParam Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        return ResponseEntity.ok(headacheLogService.getUserLogsPage(userId, cursor, size));
+    }
+
+    /**
+     * 以 NDJSON 串流輸出當前用戶的所有日誌（每行一筆）
+     */
+    @GetMapping(value = "/my-logs/stream", produces = "application/x-ndjson")
+    public void streamMyLogs(@RequestParam Long userId, HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        headacheLogService.streamUserLogs(userId, response.getOutputStream());
     }
 
     /**
@@ -57,6 +147,7 @@ public class HeadacheLogController {
     /**
      * 更新日誌
      */
+    @StatementBudget(20)
     @PutMapping("/{id}")
     public ResponseEntity<HeadacheLogDTO> updateLog(
             @PathVariable Long id,
@@ -68,6 +159,7 @@ public class HeadacheLogController {
     /**
      * 刪除日誌
      */
+    @StatementBudget(10)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteLog(@PathVariable Long id) {
         headacheLogService.deleteLog(id);
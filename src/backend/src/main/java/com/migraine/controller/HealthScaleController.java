@@ -1,10 +1,17 @@
 package com.migraine.controller;
 
+import com.migraine.cache.CachedHistory;
 import com.migraine.dto.HealthScaleDTO;
+import com.migraine.dto.HealthScaleSummaryDTO;
+import com.migraine.dto.ScaleScoreMatrixDTO;
+import com.migraine.monitoring.StatementBudget;
 import com.migraine.service.HealthScaleService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -12,6 +19,7 @@ import java.util.List;
  * 健康量表控制器
  */
 @RestController
+@StatementBudget(3)  // 單一查詢，另保留一條給帳號狀態檢查
 @RequestMapping("/health-scales")
 @RequiredArgsConstructor
 public class HealthScaleController {
@@ -27,11 +35,34 @@ public class HealthScaleController {
     }
 
     /**
-     * 獲取用戶所有量表記錄
+     * 獲取用戶所有量表記錄（If-None-Match 與目前 ETag 相同時回應 304）
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<HealthScaleDTO>> getUserScales(@PathVariable Long userId) {
-        return ResponseEntity.ok(healthScaleService.getUserScales(userId));
+    public ResponseEntity<List<HealthScaleDTO>> getUserScales(@PathVariable Long userId, WebRequest webRequest) {
+        CachedHistory<HealthScaleDTO> history = healthScaleService.getUserScaleHistory(userId);
+        if (webRequest.checkNotModified(history.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(history.etag())
+                .body(history.items());
+    }
+
+    /**
+     * 獲取用戶量表摘要（不含答案與判讀）
+     */
+    @GetMapping("/user/{userId}/summary")
+    public ResponseEntity<List<HealthScaleSummaryDTO>> getUserScaleSummaries(@PathVariable Long userId) {
+        return ResponseEntity.ok(healthScaleService.getUserScaleSummaries(userId));
+    }
+
+    /**
+     * 獲取用戶各量表最近一次結果（一條 SQL 取得全部量表類型）
+     */
+    @GetMapping("/user/{userId}/latest")
+    public ResponseEntity<ScaleScoreMatrixDTO> getUserLatestScores(@PathVariable Long userId) {
+        return ResponseEntity.ok(healthScaleService.getLatestScoreMatrix(List.of(userId)));
     }
 
     /**
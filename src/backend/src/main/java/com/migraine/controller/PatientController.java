@@ -0,0 +1,62 @@
+package com.migraine.controller;
+
+import com.migraine.dto.CursorPageDTO;
+import com.migraine.dto.PatientRosterDTO;
+import com.migraine.dto.PatientRosterFilter;
+import com.migraine.dto.ScaleScoreMatrixDTO;
+import com.migraine.monitoring.StatementBudget;
+import com.migraine.service.HealthScaleService;
+import com.migraine.service.PatientService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * 病患名冊控制器（醫師 / 個管師，權限見 SecurityConfig 的 /patients/**）
+ */
+@RestController
+@StatementBudget(3)  // 名冊與摘要為單一查詢，另保留一條給帳號狀態檢查
+@RequestMapping("/patients")
+@RequiredArgsConstructor
+public class PatientController {
+
+    private final PatientService patientService;
+    private final HealthScaleService healthScaleService;
+
+    /**
+     * 病患名冊：依姓名/病歷號開頭、年齡、性別篩選，依姓名或病歷號排序，以游標分頁
+     * cursor 為上一頁回傳的 nextCursor，換排序方式時須從第一頁開始
+     */
+    @GetMapping
+    public ResponseEntity<CursorPageDTO<PatientRosterDTO>> getRoster(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer minAge,
+            @RequestParam(required = false) Integer maxAge,
+            @RequestParam(required = false) String gender,
+            @RequestParam(defaultValue = "NAME") PatientRosterFilter.Sort sort,
+            @RequestParam(defaultValue = "false") boolean desc,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        PatientRosterFilter filter = PatientRosterFilter.builder()
+                .prefix(q == null || q.isBlank() ? null : q.trim())
+                .minAge(minAge)
+                .maxAge(maxAge)
+                .gender(gender == null || gender.isBlank() ? null : gender)
+                .sort(sort)
+                .descending(desc)
+                .build();
+        return ResponseEntity.ok(patientService.getRoster(filter, cursor, size));
+    }
+
+    /**
+     * 多位病患各量表最近一次結果的矩陣（例如名冊當頁的 userId，一次最多 1000 位，一條 SQL）
+     */
+    @GetMapping("/latest-scales")
+    public ResponseEntity<ScaleScoreMatrixDTO> getLatestScales(@RequestParam List<Long> userIds) {
+        return ResponseEntity.ok(healthScaleService.getLatestScoreMatrix(new LinkedHashSet<>(userIds)));
+    }
+}
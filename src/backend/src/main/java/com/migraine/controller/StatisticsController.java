@@ -0,0 +1,104 @@
+package com.migraine.controller;
+
+import com.migraine.dto.FrequencyDTO;
+import com.migraine.dto.MonthlyHeadacheStatsDTO;
+import com.migraine.dto.PatientHeadacheSummaryDTO;
+import com.migraine.monitoring.StatementBudget;
+import com.migraine.service.StatisticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 統計控制器（僅醫師與個管師，權限見 SecurityConfig）
+ * 未指定日期區間時預設為最近 12 個月
+ */
+@RestController
+@StatementBudget(3)  // 單一查詢，另保留一條給帳號狀態檢查
+@RequestMapping("/statistics")
+@RequiredArgsConstructor
+public class StatisticsController {
+
+    private final StatisticsService statisticsService;
+
+    /**
+     * 單一病患每月統計
+     */
+    @GetMapping("/patients/{userId}/monthly")
+    public ResponseEntity<List<MonthlyHeadacheStatsDTO>> getMonthlyStats(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(statisticsService.getMonthlyStats(userId, fromOrDefault(from), toOrDefault(to)));
+    }
+
+    /**
+     * 單一病患誘發因素次數
+     */
+    @GetMapping("/patients/{userId}/triggers")
+    public ResponseEntity<List<FrequencyDTO>> getTriggerFrequencies(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(statisticsService.getTriggerFrequencies(userId, fromOrDefault(from), toOrDefault(to)));
+    }
+
+    /**
+     * 單一病患用藥次數
+     */
+    @GetMapping("/patients/{userId}/medications")
+    public ResponseEntity<List<FrequencyDTO>> getMedicationFrequencies(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(statisticsService.getMedicationFrequencies(userId, fromOrDefault(from), toOrDefault(to)));
+    }
+
+    /**
+     * 群體統計：每位病患一列摘要
+     */
+    @GetMapping("/cohort/patients")
+    public ResponseEntity<List<PatientHeadacheSummaryDTO>> getCohortSummaries(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(statisticsService.getCohortSummaries(fromOrDefault(from), toOrDefault(to)));
+    }
+
+    /**
+     * 群體誘發因素次數
+     */
+    @GetMapping("/cohort/triggers")
+    public ResponseEntity<List<FrequencyDTO>> getCohortTriggerFrequencies(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(statisticsService.getTriggerFrequencies(null, fromOrDefault(from), toOrDefault(to)));
+    }
+
+    /**
+     * 群體用藥次數
+     */
+    @GetMapping("/cohort/medications")
+    public ResponseEntity<List<FrequencyDTO>> getCohortMedicationFrequencies(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(statisticsService.getMedicationFrequencies(null, fromOrDefault(from), toOrDefault(to)));
+    }
+
+    private LocalDate fromOrDefault(LocalDate from) {
+        return from != null ? from : LocalDate.now().minusMonths(12).withDayOfMonth(1);
+    }
+
+    private LocalDate toOrDefault(LocalDate to) {
+        return to != null ? to : LocalDate.now();
+    }
+}
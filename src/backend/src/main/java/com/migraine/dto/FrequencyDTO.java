@@ -0,0 +1,16 @@
+package com.migraine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 項目出現次數 DTO（誘發因素、用藥等）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FrequencyDTO {
+    private String item;
+    private Long count;
+}
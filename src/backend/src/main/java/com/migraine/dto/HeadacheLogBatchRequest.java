@@ -0,0 +1,22 @@
+package com.migraine.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批次上傳頭痛日誌請求 DTO（離線日誌同步）
+ */
+@Data
+public class HeadacheLogBatchRequest {
+    @NotNull(message = "用戶 ID 不能為空")
+    private Long userId;
+
+    @NotEmpty(message = "日誌不能為空")
+    @Size(max = 500, message = "單次最多上傳 500 筆日誌")
+    private List<@Valid HeadacheLogDTO> logs;
+}
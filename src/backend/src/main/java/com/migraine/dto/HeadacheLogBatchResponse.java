@@ -0,0 +1,20 @@
+package com.migraine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批次上傳頭痛日誌響應 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeadacheLogBatchResponse {
+    private List<HeadacheLogDTO> created;
+    private List<String> duplicateClientIds;  // 已上傳過而被略過的冪等鍵
+}
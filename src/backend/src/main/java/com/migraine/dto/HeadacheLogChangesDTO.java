@@ -0,0 +1,22 @@
+package com.migraine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 頭痛日誌增量同步響應 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeadacheLogChangesDTO {
+    private List<HeadacheLogDTO> changed;  // since 之後新增或修改的日誌
+    private List<HeadacheLogTombstoneDTO> deleted;  // since 之後刪除的日誌
+    private LocalDateTime syncedAt;  // 下次同步時作為 since 傳回
+}
@@ -1,5 +1,9 @@
 package com.migraine.dto;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,14 +21,36 @@ import java.time.LocalDateTime;
 public class HeadacheLogDTO {
     private Long id;
     private Long userId;
+
+    @NotNull(message = "日期不能為空")
     private LocalDateTime logDate;
+
+    @NotNull(message = "疼痛強度不能為空")
+    @Min(value = 1, message = "疼痛強度需介於 1-10")
+    @Max(value = 10, message = "疼痛強度需介於 1-10")
     private Integer intensity;
+
+    @Size(max = 500)
     private String symptoms;
+
+    @Size(max = 200)
     private String medication;
+
+    @Size(max = 500)
     private String notes;
+
+    @Min(value = 0, message = "持續時間不能為負數")
     private Integer durationHours;
+
+    @Size(max = 100)
     private String location;
+
+    @Size(max = 200)
     private String triggers;
+
+    @Size(max = 64)
+    private String clientId;  // 客戶端冪等鍵（選填）
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
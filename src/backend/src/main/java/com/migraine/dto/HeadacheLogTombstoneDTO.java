@@ -0,0 +1,21 @@
+package com.migraine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 頭痛日誌刪除標記 DTO（增量同步用）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeadacheLogTombstoneDTO {
+    private Long id;
+    private String clientId;
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,25 @@
+package com.migraine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 健康量表摘要 DTO（不含 answers/interpretation 等大型文字欄位，供列表檢視使用）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HealthScaleSummaryDTO {
+    private Long id;
+    private Long userId;
+    private String scaleType;
+    private LocalDateTime testDate;
+    private Integer score;
+    private String level;
+    private LocalDateTime createdAt;
+}
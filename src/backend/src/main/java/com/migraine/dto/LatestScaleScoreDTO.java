@@ -0,0 +1,21 @@
+package com.migraine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 某位用戶某種量表的最近一次結果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LatestScaleScoreDTO {
+    private Long userId;
+    private String scaleType;
+    private LocalDateTime testDate;
+    private Integer score;
+    private String level;
+}
@@ -0,0 +1,23 @@
+package com.migraine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 每月頭痛統計 DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyHeadacheStatsDTO {
+    private Integer year;
+    private Integer month;
+    private Long logCount;          // 日誌筆數
+    private Long headacheDays;      // 頭痛日數
+    private Double avgIntensity;    // 平均疼痛強度
+    private Integer maxIntensity;   // 最高疼痛強度
+    private Long severeDays;        // 重度頭痛日數（強度 >= 7，MIDAS 失能日參考）
+    private Long medicationDays;    // 用藥日數（藥物過度使用參考）
+    private Long totalDurationHours;
+}
@@ -0,0 +1,26 @@
+package com.migraine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 病患頭痛摘要 DTO（群體統計中每位病患一列）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientHeadacheSummaryDTO {
+    private Long userId;
+    private String name;
+    private String patientId;
+    private Long logCount;
+    private Long headacheDays;
+    private Double avgIntensity;
+    private Integer maxIntensity;
+    private Long severeDays;
+    private Long medicationDays;
+    private LocalDateTime lastLogDate;
+}
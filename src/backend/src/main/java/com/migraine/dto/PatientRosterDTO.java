@@ -0,0 +1,24 @@
+package com.migraine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 病患名冊 DTO（每位病患一列，附帶近況摘要）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientRosterDTO {
+    private Long userId;
+    private String name;
+    private String patientId;
+    private Integer age;
+    private String gender;
+    private LocalDateTime lastLogDate;  // 最後一筆頭痛日誌時間
+    private Long headacheDaysLast30;  // 近 30 天（含今天）有頭痛的天數
+    private Integer latestMidasScore;  // 最近一次 MIDAS 分數
+}
@@ -0,0 +1,24 @@
+package com.migraine.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * 病患名冊篩選與排序條件（未指定的條件不過濾）
+ */
+@Value
+@Builder
+public class PatientRosterFilter {
+    String prefix;  // 姓名或病歷號開頭
+    Integer minAge;
+    Integer maxAge;
+    String gender;
+    @Builder.Default
+    Sort sort = Sort.NAME;
+    boolean descending;
+
+    public enum Sort {
+        NAME,
+        PATIENT_ID
+    }
+}
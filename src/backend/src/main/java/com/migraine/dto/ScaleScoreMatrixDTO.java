@@ -0,0 +1,38 @@
+package com.migraine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 最近量表分數矩陣：每位用戶一列，cells 依 scaleTypes 的順序排列，未做過的量表為 null
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScaleScoreMatrixDTO {
+    private List<String> scaleTypes;
+    private List<Row> rows;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Row {
+        private Long userId;
+        private List<Cell> cells;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Cell {
+        private Integer score;
+        private String level;
+        private LocalDateTime testDate;
+    }
+}
@@ -0,0 +1,66 @@
+package com.migraine.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * 每日頭痛彙總（每位用戶每天一列，隨日誌異動增量維護）
+ */
+@Entity
+@Table(name = "headache_daily_rollups")
+@IdClass(HeadacheDailyRollup.Key.class)
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)  // 以複合主鍵比較
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeadacheDailyRollup {
+
+    @Id
+    @Column(name = "user_id")
+    @EqualsAndHashCode.Include
+    private Long userId;
+
+    @Id
+    @Column(name = "stat_date")
+    @EqualsAndHashCode.Include
+    private LocalDate statDate;
+
+    @Column(name = "log_count", nullable = false)
+    private Long logCount;
+
+    @Column(name = "intensity_sum", nullable = false)
+    private Long intensitySum;
+
+    @Column(name = "intensity_max", nullable = false)
+    private Integer intensityMax;
+
+    @Column(name = "duration_sum", nullable = false)
+    private Long durationSum;
+
+    @Column(name = "medication_count", nullable = false)
+    private Long medicationCount;  // 當天有用藥的日誌筆數
+
+    @Column(name = "severe_count", nullable = false)
+    private Long severeCount;  // 當天強度 >= 7 的日誌筆數
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private LocalDate statDate;
+    }
+}
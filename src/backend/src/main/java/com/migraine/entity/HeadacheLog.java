@@ -3,8 +3,12 @@ package com.migraine.entity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.SQLRestriction;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -13,19 +17,24 @@ import java.time.LocalDateTime;
 
 /**
  * 頭痛日誌實體
+ * 刪除為軟刪除（保留 deleted_at 作為增量同步的刪除標記），實體查詢一律排除已刪除的列
  */
 @Entity
 @Table(name = "headache_logs")
+@SQLRestriction("deleted_at IS NULL")
 @EntityListeners(AuditingEntityListener.class)
-@Data
+@Getter
+@Setter
+@ToString(exclude = "user")
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class HeadacheLog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "headache_logs_seq")
+    @SequenceGenerator(name = "headache_logs_seq", sequenceName = "headache_logs_id_seq", allocationSize = 50)
+    private Long id;  // pooled 序列，可批次 INSERT
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -55,11 +64,36 @@ public class HeadacheLog {
     @Column(length = 200)
     private String triggers;  // 誘發因素
 
+    @Column(name = "client_id", length = 64)
+    private String clientId;  // 客戶端冪等鍵（離線同步重送時避免重複）
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @LastModifiedDate
     @Column(name = "updated_at")
-    private LocalDateTime updatedAt;
+    private LocalDateTime updatedAt;  // 增量同步的依據，刪除時一併更新
+
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    /**
+     * 以主鍵比較，與 User 相同
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) {
+            return false;
+        }
+        return id != null && id.equals(((HeadacheLog) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Hibernate.getClass(this).hashCode();
+    }
 }
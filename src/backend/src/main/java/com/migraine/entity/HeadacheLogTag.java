@@ -0,0 +1,55 @@
+package com.migraine.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 日誌與標籤的關聯（每個日誌的每個項目一列）
+ * 冗餘存放 user_id 與 log_date，頻率統計只需掃描索引，不必回查日誌表
+ */
+@Entity
+@Table(name = "headache_log_tags")
+@IdClass(HeadacheLogTag.Key.class)
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)  // 以複合主鍵比較
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeadacheLogTag {
+
+    @Id
+    @Column(name = "log_id")
+    @EqualsAndHashCode.Include
+    private Long logId;
+
+    @Id
+    @Column(name = "tag_id")
+    @EqualsAndHashCode.Include
+    private Short tagId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "log_date", nullable = false)
+    private LocalDateTime logDate;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long logId;
+        private Short tagId;
+    }
+}
@@ -0,0 +1,74 @@
+package com.migraine.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.Serializable;
+
+/**
+ * 每月頭痛彙總（由每日彙總推導，每位用戶每月一列）
+ */
+@Entity
+@Table(name = "headache_monthly_rollups")
+@IdClass(HeadacheMonthlyRollup.Key.class)
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)  // 以複合主鍵比較
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeadacheMonthlyRollup {
+
+    @Id
+    @Column(name = "user_id")
+    @EqualsAndHashCode.Include
+    private Long userId;
+
+    @Id
+    @Column(name = "stat_year")
+    @EqualsAndHashCode.Include
+    private Integer statYear;
+
+    @Id
+    @Column(name = "stat_month")
+    @EqualsAndHashCode.Include
+    private Integer statMonth;
+
+    @Column(name = "headache_days", nullable = false)
+    private Long headacheDays;
+
+    @Column(name = "log_count", nullable = false)
+    private Long logCount;
+
+    @Column(name = "intensity_sum", nullable = false)
+    private Long intensitySum;
+
+    @Column(name = "intensity_max", nullable = false)
+    private Integer intensityMax;
+
+    @Column(name = "duration_sum", nullable = false)
+    private Long durationSum;
+
+    @Column(name = "medication_days", nullable = false)
+    private Long medicationDays;
+
+    @Column(name = "severe_days", nullable = false)
+    private Long severeDays;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private Integer statYear;
+        private Integer statMonth;
+    }
+}
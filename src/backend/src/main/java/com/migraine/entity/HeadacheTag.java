@@ -0,0 +1,60 @@
+package com.migraine.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+
+/**
+ * 頭痛日誌標籤字典（症狀、誘發因素、用藥、疼痛部位）
+ * 每個不同的項目只存一次，日誌以小整數代碼引用
+ */
+@Entity
+@Table(name = "headache_tags",
+        uniqueConstraints = @UniqueConstraint(name = "uk_headache_tags_category_name", columnNames = {"category", "name"}))
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeadacheTag {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Short id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Category category;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) {
+            return false;
+        }
+        return id != null && id.equals(((HeadacheTag) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Hibernate.getClass(this).hashCode();
+    }
+
+    public enum Category {
+        SYMPTOM,     // 症狀
+        TRIGGER,     // 誘發因素
+        MEDICATION,  // 用藥
+        LOCATION     // 疼痛部位
+    }
+}
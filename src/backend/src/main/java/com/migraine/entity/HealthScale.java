@@ -1,10 +1,14 @@
 package com.migraine.entity;
 
+import com.migraine.dto.LatestScaleScoreDTO;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -15,13 +19,27 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "health_scales")
+@SqlResultSetMapping(name = HealthScale.LATEST_SCORE_MAPPING, classes = @ConstructorResult(
+        targetClass = LatestScaleScoreDTO.class,
+        columns = {
+                @ColumnResult(name = "user_id", type = Long.class),
+                @ColumnResult(name = "scale_type", type = String.class),
+                @ColumnResult(name = "test_date", type = LocalDateTime.class),
+                @ColumnResult(name = "score", type = Integer.class),
+                @ColumnResult(name = "level", type = String.class)
+        }))
 @EntityListeners(AuditingEntityListener.class)
-@Data
+@Getter
+@Setter
+@ToString(exclude = "user")
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class HealthScale {
 
+    /** 原生查詢結果對應到 LatestScaleScoreDTO（見 LatestScaleScoreRepositoryImpl） */
+    public static final String LATEST_SCORE_MAPPING = "HealthScale.latestScore";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -49,10 +67,32 @@ public class HealthScale {
     @Column(columnDefinition = "TEXT")
     private String interpretation;  // 結果判讀
 
+    @Column(name = "scoring_version")
+    private Integer scoringVersion;  // 計分定義版本（NULL 為伺服器計分前由客戶端計算的舊資料）
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    /**
+     * 以主鍵比較，與 User 相同
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) {
+            return false;
+        }
+        return id != null && id.equals(((HealthScale) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Hibernate.getClass(this).hashCode();
+    }
+
     public enum ScaleType {
         MIDAS,              // 偏頭痛失能評估量表
         HADS,               // 醫院焦慮憂鬱量表
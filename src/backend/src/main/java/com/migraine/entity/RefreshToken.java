@@ -3,8 +3,11 @@ package com.migraine.entity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
 
 import java.time.LocalDateTime;
 
@@ -14,18 +17,27 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "refresh_tokens")
-@Data
+@NamedEntityGraph(name = RefreshToken.GRAPH_WITH_USER, attributeNodes = @NamedAttributeNode("user"))
+@Getter
+@Setter
+@ToString(exclude = {"token", "user"})
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class RefreshToken {
 
+    /** 連同用戶一起載入（驗證後要以用戶資料簽發 Access Token 時使用） */
+    public static final String GRAPH_WITH_USER = "RefreshToken.withUser";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true, length = 500)
-    private String token;
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;  // Token 的 SHA-256（十六進位），資料庫不保存原始 Token
+
+    @Transient
+    private String token;  // 原始 Token，僅在剛建立時有值（回傳給客戶端）
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -57,4 +69,20 @@ public class RefreshToken {
     public boolean isValid() {
         return !isExpired() && !revoked;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) {
+            return false;
+        }
+        return id != null && id.equals(((RefreshToken) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Hibernate.getClass(this).hashCode();
+    }
 }
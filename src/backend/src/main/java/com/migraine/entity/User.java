@@ -1,10 +1,14 @@
 package com.migraine.entity;
 
+import com.migraine.entity.listener.UserChangeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -18,8 +22,10 @@ import java.util.Set;
  */
 @Entity
 @Table(name = "users")
-@EntityListeners(AuditingEntityListener.class)
-@Data
+@EntityListeners({AuditingEntityListener.class, UserChangeListener.class})
+@Getter
+@Setter
+@ToString(exclude = {"password", "headacheLogs", "healthScales"})
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -65,6 +71,7 @@ public class User {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // 以下集合只供刪除用戶時串聯刪除，不應直接讀取（會載入整份病歷）；查詢請使用各自的 Repository
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private Set<HeadacheLog> headacheLogs = new HashSet<>();
@@ -73,6 +80,25 @@ public class User {
     @Builder.Default
     private Set<HealthScale> healthScales = new HashSet<>();
 
+    /**
+     * 以主鍵比較（未保存的實體只等於自己），不觸碰任何關聯；hashCode 固定，保存前後放入 Set 都安全
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) {
+            return false;
+        }
+        return id != null && id.equals(((User) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Hibernate.getClass(this).hashCode();
+    }
+
     public enum UserRole {
         PATIENT,         // 病患
         DOCTOR,          // 醫師
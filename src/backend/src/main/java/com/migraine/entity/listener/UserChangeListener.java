@@ -0,0 +1,48 @@
+package com.migraine.entity.listener;
+
+import com.migraine.entity.User;
+import com.migraine.security.AccountStatusChecker;
+import com.migraine.security.UserDetailsCache;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 用戶異動監聽器
+ * 密碼、角色、啟用狀態等任何欄位更新或刪除後，清除認證相關快取
+ * 監聽器在 flush 時觸發，清除延到交易提交後，避免提交前被其他請求以舊狀態回填
+ */
+@Component
+@RequiredArgsConstructor
+public class UserChangeListener {
+
+    // 以 ObjectProvider 延遲取得，避免與 EntityManagerFactory 形成循環依賴
+    private final ObjectProvider<UserDetailsCache> userDetailsCache;
+    private final ObjectProvider<AccountStatusChecker> accountStatusChecker;
+
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        String email = user.getEmail();
+        Long userId = user.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(email, userId);
+                }
+            });
+        } else {
+            evict(email, userId);
+        }
+    }
+
+    private void evict(String email, Long userId) {
+        userDetailsCache.ifAvailable(cache -> cache.evict(email));
+        accountStatusChecker.ifAvailable(checker -> checker.evict(userId));
+    }
+}
@@ -0,0 +1,44 @@
+package com.migraine.exception;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+/**
+ * 全域例外處理
+ */
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    /**
+     * 密碼雜湊忙碌：快速失敗並告知客戶端稍後重試
+     */
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<Map<String, String>> handlePasswordHashingRejected(PasswordHashingRejectedException ex) {
+        return ResponseEntity.status(ex.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", ex.getStatus().getReasonPhrase(), "message", ex.getMessage()));
+    }
+
+    /**
+     * SQL 語句數超過端點預算（測試與壓力測試時啟用，用來抓出 N+1 查詢）
+     */
+    @ExceptionHandler(StatementBudgetExceededException.class)
+    public ResponseEntity<Map<String, String>> handleStatementBudgetExceeded(StatementBudgetExceededException ex) {
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Statement Budget Exceeded", "message", ex.getMessage()));
+    }
+
+    /**
+     * 量表答案無法計分：回應 400 與原因，不寫入紀錄
+     */
+    @ExceptionHandler(InvalidScaleAnswersException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidScaleAnswers(InvalidScaleAnswersException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", "Bad Request", "message", ex.getMessage()));
+    }
+}
@@ -0,0 +1,13 @@
+package com.migraine.exception;
+
+import com.migraine.entity.HealthScale;
+
+/**
+ * 量表答案無法計分（格式錯誤、缺題或超出選項範圍），回應 400
+ */
+public class InvalidScaleAnswersException extends RuntimeException {
+
+    public InvalidScaleAnswersException(HealthScale.ScaleType scaleType, String reason) {
+        super(scaleType + " 量表答案無效: " + reason);
+    }
+}
@@ -0,0 +1,20 @@
+package com.migraine.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * 密碼雜湊執行緒池忙碌（佇列已滿回應 429，等候逾時回應 503）
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public PasswordHashingRejectedException(boolean queueFull) {
+        super(queueFull ? "登入請求過多，請稍後再試" : "伺服器忙碌中，請稍後再試");
+        this.status = queueFull ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,11 @@
+package com.migraine.exception;
+
+/**
+ * 請求送出的 SQL 語句數超過端點的預算（僅在 monitoring.statement-budget.fail-on-exceed=true 時拋出）
+ */
+public class StatementBudgetExceededException extends RuntimeException {
+
+    public StatementBudgetExceededException(int budget, String sql) {
+        super("SQL 語句數超過預算 " + budget + "，超出的語句：" + sql);
+    }
+}
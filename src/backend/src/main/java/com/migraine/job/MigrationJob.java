@@ -0,0 +1,39 @@
+package com.migraine.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 一次性資料庫遷移任務（migrate profile）
+ * 遷移由 Flyway 自動配置在 JPA 初始化前完成，EntityManagerFactory 以 validate 建立成功即代表對映一致；
+ * 此處只記錄目前版本並結束程序，失敗時 Spring 啟動即中止並回傳非 0 exit code；
+ * 排在最後，讓同一 profile 啟用的其他一次性任務（如 ScaleRescoreJob）先完成
+ */
+@Slf4j
+@Component
+@Profile("migrate")
+@Order(Ordered.LOWEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class MigrationJob implements ApplicationRunner {
+
+    private final Flyway flyway;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        MigrationInfo current = flyway.info().current();
+        log.info("Database schema is at version {} ({} pending)",
+                current != null ? current.getVersion() : "<empty>", flyway.info().pending().length);
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
@@ -0,0 +1,80 @@
+package com.migraine.job;
+
+import com.migraine.service.RefreshTokenService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Refresh Token 清除任務
+ * 每批在獨立交易中刪除 batch-size 筆，批次之間暫停 pause 毫秒，避免長時間鎖表與大量 WAL；
+ * 已撤銷的 Token 保留 revoked-retention 毫秒，供旋轉時偵測重複使用
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "jwt.refresh-purge.enabled", havingValue = "true", matchIfMissing = true)
+public class RefreshTokenPurgeJob {
+
+    private final RefreshTokenService refreshTokenService;
+    private final Counter purgedCounter;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    @Value("${jwt.refresh-purge.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${jwt.refresh-purge.pause:200}")
+    private long pauseMillis;
+
+    @Value("${jwt.refresh-purge.revoked-retention:604800000}") // 預設 7 天
+    private long revokedRetention;
+
+    public RefreshTokenPurgeJob(RefreshTokenService refreshTokenService, MeterRegistry meterRegistry) {
+        this.refreshTokenService = refreshTokenService;
+        this.purgedCounter = Counter.builder("refresh_tokens.purged")
+                .description("已清除的過期或已撤銷 Refresh Token 筆數")
+                .register(meterRegistry);
+        Gauge.builder("refresh_tokens.purge.lag", lagSeconds, AtomicLong::get)
+                .description("最舊一筆尚未清除的過期 Token 已過期的秒數")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-purge.interval:3600000}",
+               initialDelayString = "${jwt.refresh-purge.initial-delay:60000}")
+    public void purge() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime revokedBefore = now.minus(Duration.ofMillis(revokedRetention));
+        long total = 0;
+
+        try {
+            int deleted;
+            do {
+                deleted = refreshTokenService.purgeBatch(now, revokedBefore, batchSize);
+                purgedCounter.increment(deleted);
+                total += deleted;
+                if (deleted == batchSize) {
+                    Thread.sleep(pauseMillis);
+                }
+            } while (deleted == batchSize);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lagSeconds.set(refreshTokenService.findOldestExpiredAt(LocalDateTime.now())
+                    .map(oldest -> Duration.between(oldest, LocalDateTime.now()).toSeconds())
+                    .orElse(0L));
+        }
+
+        if (total > 0) {
+            log.info("Purged {} refresh tokens", total);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.migraine.job;
+
+import com.migraine.service.HeadacheRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 頭痛彙總重建任務（rollup.rebuild-on-startup=true 時於啟動後執行一次）
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "rollup.rebuild-on-startup", havingValue = "true")
+public class RollupRebuildJob implements ApplicationRunner {
+
+    private final HeadacheRollupService headacheRollupService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.currentTimeMillis();
+        int users = headacheRollupService.rebuildAll();
+        log.info("Rebuilt headache rollups for {} users in {} ms", users, System.currentTimeMillis() - start);
+    }
+}
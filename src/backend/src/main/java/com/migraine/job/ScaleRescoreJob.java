@@ -0,0 +1,33 @@
+package com.migraine.job;
+
+import com.migraine.service.ScaleRescoreService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 量表重新計分任務（scoring.rescore-on-startup=true 時於啟動後執行一次）
+ * 計分定義 version 遞增後隨 migrate profile 執行；須排在 MigrationJob 結束程序之前
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "scoring.rescore-on-startup", havingValue = "true")
+public class ScaleRescoreJob implements ApplicationRunner {
+
+    private final ScaleRescoreService scaleRescoreService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.currentTimeMillis();
+        ScaleRescoreService.RescoreResult result = scaleRescoreService.rescoreOutdated();
+        log.info("Rescored {} health scales ({} with invalid answers left unchanged) in {} ms",
+                result.rescored(), result.failed(), System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,315 @@
+package com.migraine.job;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.migraine.dto.HeadacheLogDTO;
+import com.migraine.dto.HealthScaleDTO;
+import com.migraine.entity.HeadacheLog;
+import com.migraine.entity.HealthScale;
+import com.migraine.entity.User;
+import com.migraine.mapper.HeadacheLogMapper;
+import com.migraine.mapper.HealthScaleMapper;
+import com.migraine.repository.HeadacheLogRepository;
+import com.migraine.repository.HealthScaleRepository;
+import com.migraine.security.JwtTokenProvider;
+import com.migraine.security.UserDetailsCache;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 啟動暖機（warmup.enabled=true 時執行）
+ * ApplicationRunner 全部結束後 Spring Boot 才將 readiness 轉為 ACCEPTING_TRAFFIC，
+ * 因此 /actuator/health/readiness 在暖機完成前回應 503，負載平衡器不會把流量導進冷節點。
+ *
+ * 先補滿 Hikari 連線池，再以合成資料輪流執行 JWT 簽發/驗證與 UserDetails 載入、BCrypt、實體 → DTO → JSON、
+ * 頭痛日誌與量表的常用查詢（不存在的用戶 ID，只讀），讓 JIT 編譯熱路徑並填入 Hibernate 查詢計畫快取。
+ * 超過 warmup.budget 即停止；任一步驟失敗只記錄並略過，不影響啟動。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "warmup.enabled", havingValue = "true")
+public class WarmupJob implements ApplicationRunner {
+
+    /** 合成資料使用的用戶 ID：不存在於資料庫，查詢結果一律為空 */
+    private static final long SYNTHETIC_USER_ID = -1L;
+    private static final String SYNTHETIC_PASSWORD = "warmup-password";
+    private static final int SYNTHETIC_ROWS = 50;
+
+    private final DataSource dataSource;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final HeadacheLogMapper headacheLogMapper;
+    private final HealthScaleMapper healthScaleMapper;
+    private final HeadacheLogRepository headacheLogRepository;
+    private final HealthScaleRepository healthScaleRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final TransactionTemplate readOnlyTx;
+    private final MeterRegistry meterRegistry;
+    private final long budgetMillis;
+    private final int iterations;
+    private final int passwordHashIterations;
+    private String encodedPassword;
+
+    public WarmupJob(DataSource dataSource,
+                     JwtTokenProvider jwtTokenProvider,
+                     PasswordEncoder passwordEncoder,
+                     ObjectMapper objectMapper,
+                     HeadacheLogMapper headacheLogMapper,
+                     HealthScaleMapper healthScaleMapper,
+                     HeadacheLogRepository headacheLogRepository,
+                     HealthScaleRepository healthScaleRepository,
+                     UserDetailsCache userDetailsCache,
+                     PlatformTransactionManager transactionManager,
+                     MeterRegistry meterRegistry,
+                     @Value("${warmup.budget:20000}") long budgetMillis,
+                     @Value("${warmup.iterations:300}") int iterations,
+                     @Value("${warmup.password-hash-iterations:5}") int passwordHashIterations) {
+        this.dataSource = dataSource;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.headacheLogMapper = headacheLogMapper;
+        this.healthScaleMapper = healthScaleMapper;
+        this.headacheLogRepository = headacheLogRepository;
+        this.healthScaleRepository = healthScaleRepository;
+        this.userDetailsCache = userDetailsCache;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+        this.budgetMillis = budgetMillis;
+        this.iterations = iterations;
+        this.passwordHashIterations = passwordHashIterations;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+
+        List<Step> steps = new ArrayList<>();
+        steps.add(new Step("connection_pool", 1, this::fillConnectionPool));
+        steps.add(new Step("queries", iterations, this::runQueries));
+        steps.add(new Step("jwt", iterations, jwtRound()));
+        steps.add(new Step("json", iterations, jsonRound()));
+        steps.add(new Step("password_hash", passwordHashIterations, this::hashPassword));
+
+        // 逐輪執行每個步驟各一次，預算不足時每條路徑仍至少跑過幾輪
+        boolean exhausted = false;
+        for (int round = 0; round < iterations && !exhausted; round++) {
+            for (Step step : steps) {
+                if (System.nanoTime() >= deadline) {
+                    exhausted = true;
+                    break;
+                }
+                step.runRound(round);
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        String outcome = exhausted ? "budget_exhausted" : "completed";
+        Timer.builder("warmup.duration")
+                .description("啟動暖機總耗時（readiness 轉為 ready 前）")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        steps.forEach(step -> step.report(meterRegistry));
+
+        log.info("Warm-up {} in {} ms (budget {} ms): {}", outcome, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                budgetMillis, steps.stream().map(Step::toString).collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * 同時借出 minimumIdle 條連線再歸還，讓連線在第一個請求前建立完成（預設 minimumIdle = maximumPoolSize）
+     */
+    private void fillConnectionPool() {
+        if (!(dataSource instanceof HikariDataSource hikari)) {
+            return;
+        }
+        List<Connection> connections = new ArrayList<>();
+        try {
+            for (int i = 0; i < hikari.getMinimumIdle(); i++) {
+                connections.add(hikari.getConnection());
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("連線池暖機失敗: " + ex.getMessage(), ex);
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException ignored) {
+                    // 歸還失敗的連線由 Hikari 自行淘汰
+                }
+            }
+        }
+    }
+
+    /**
+     * 服務層實際使用的查詢（含 JPQL 建構子投影、原生查詢與衍生查詢），以不存在的用戶 ID 只讀執行
+     */
+    private void runQueries() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime monthAgo = now.minusDays(30);
+        readOnlyTx.executeWithoutResult(status -> {
+            headacheLogRepository.findDTOsByUserId(SYNTHETIC_USER_ID);
+            headacheLogRepository.findDTOsByUserIdAndLogDateBetween(SYNTHETIC_USER_ID, monthAgo, now);
+            headacheLogRepository.findDTOsChangedSince(SYNTHETIC_USER_ID, monthAgo);
+            headacheLogRepository.findTombstonesSince(SYNTHETIC_USER_ID, monthAgo);
+            headacheLogRepository.findByUserIdOrderByLogDateDescIdDesc(SYNTHETIC_USER_ID, PageRequest.ofSize(51));
+            headacheLogRepository.findPageAfter(SYNTHETIC_USER_ID, now, Long.MAX_VALUE, PageRequest.ofSize(51));
+            headacheLogRepository.findExistingClientIds(SYNTHETIC_USER_ID, Set.of("warmup"));
+            headacheLogRepository.findByUserIdAndClientId(SYNTHETIC_USER_ID, "warmup");
+            try (Stream<HeadacheLog> logs = headacheLogRepository.streamByUserId(SYNTHETIC_USER_ID)) {
+                logs.forEach(row -> { });
+            }
+            healthScaleRepository.findDTOsByUserId(SYNTHETIC_USER_ID);
+            healthScaleRepository.findSummariesByUserId(SYNTHETIC_USER_ID);
+            healthScaleRepository.findDTOsByUserIdAndScaleType(SYNTHETIC_USER_ID, HealthScale.ScaleType.MIDAS);
+            healthScaleRepository.findLatestPerScaleType(List.of(SYNTHETIC_USER_ID));
+        });
+    }
+
+    /**
+     * 與 JwtAuthenticationFilter 相同：簽發 → 驗證 → 經快取載入 UserDetails（合成用戶不存在，不會寫入快取）
+     */
+    private Runnable jwtRound() {
+        User user = syntheticUser();
+        return () -> jwtTokenProvider.parseToken(jwtTokenProvider.generateToken(user))
+                .ifPresent(claims -> {
+                    try {
+                        userDetailsCache.loadUserByUsername(claims.getSubject());
+                    } catch (UsernameNotFoundException expected) {
+                        // 預期結果
+                    }
+                });
+    }
+
+    /**
+     * 實體 → DTO（MapStruct）→ JSON，以及請求本文的反序列化
+     */
+    private Runnable jsonRound() {
+        User user = syntheticUser();
+        LocalDateTime start = LocalDateTime.now().minusDays(SYNTHETIC_ROWS);
+        List<HeadacheLog> logs = new ArrayList<>(SYNTHETIC_ROWS);
+        List<HealthScale> scales = new ArrayList<>(SYNTHETIC_ROWS);
+        HealthScale.ScaleType[] types = HealthScale.ScaleType.values();
+        for (int i = 0; i < SYNTHETIC_ROWS; i++) {
+            logs.add(HeadacheLog.builder()
+                    .id((long) i).user(user).logDate(start.plusDays(i)).intensity(1 + i % 10)
+                    .symptoms("噁心,畏光").medication("Sumatriptan 50mg").triggers("睡眠不足,咖啡因")
+                    .location("左側太陽穴").durationHours(i % 24).clientId("warmup-" + i)
+                    .createdAt(start).updatedAt(start)
+                    .build());
+            scales.add(HealthScale.builder()
+                    .id((long) i).user(user).scaleType(types[i % types.length]).testDate(start.plusDays(i))
+                    .score(i % 40).level("MODERATE").answers("{\"answers\":[1,2,3,0,2]}").createdAt(start)
+                    .build());
+        }
+        ObjectReader logListReader = objectMapper.readerForListOf(HeadacheLogDTO.class);
+
+        return () -> {
+            try {
+                List<HeadacheLogDTO> logDTOs = headacheLogMapper.toDTOs(logs);
+                List<HealthScaleDTO> scaleDTOs = scales.stream().map(healthScaleMapper::toDTO).toList();
+                logListReader.readValue(objectMapper.writeValueAsBytes(logDTOs));
+                objectMapper.readValue(objectMapper.writeValueAsBytes(scaleDTOs.get(0)), HealthScaleDTO.class);
+                objectMapper.writeValueAsBytes(scaleDTOs);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        };
+    }
+
+    /**
+     * 第一輪走註冊路徑（encode），之後走登入路徑（matches）
+     */
+    private void hashPassword() {
+        if (encodedPassword == null) {
+            encodedPassword = passwordEncoder.encode(SYNTHETIC_PASSWORD);
+        }
+        passwordEncoder.matches(SYNTHETIC_PASSWORD, encodedPassword);
+    }
+
+    private static User syntheticUser() {
+        return User.builder()
+                .id(SYNTHETIC_USER_ID)
+                .email("warmup@localhost")
+                .name("warmup")
+                .role(User.UserRole.PATIENT)
+                .isActive(true)
+                .build();
+    }
+
+    /**
+     * 一條暖機路徑：累計執行次數與耗時，失敗後不再執行
+     */
+    private static final class Step {
+
+        private final String name;
+        private final int maxRounds;
+        private final Runnable action;
+        private int rounds;
+        private long nanos;
+        private boolean failed;
+
+        Step(String name, int maxRounds, Runnable action) {
+            this.name = name;
+            this.maxRounds = maxRounds;
+            this.action = action;
+        }
+
+        void runRound(int round) {
+            if (failed || round >= maxRounds) {
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                action.run();
+                rounds++;
+            } catch (RuntimeException ex) {
+                failed = true;
+                log.warn("Warm-up step {} failed and is skipped: {}", name, ex.getMessage());
+            } finally {
+                nanos += System.nanoTime() - start;
+            }
+        }
+
+        void report(MeterRegistry meterRegistry) {
+            Timer.builder("warmup.step")
+                    .description("各暖機路徑的累計耗時")
+                    .tag("step", name)
+                    .register(meterRegistry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public String toString() {
+            return name + " " + rounds + "x/" + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms" + (failed ? " (failed)" : "");
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.migraine.mapper;
+
+import com.migraine.dto.HeadacheLogDTO;
+import com.migraine.dto.HeadacheLogTombstoneDTO;
+import com.migraine.entity.HeadacheLog;
+import com.migraine.entity.User;
+import com.migraine.repository.projection.HeadacheLogTombstone;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+import java.util.List;
+
+/**
+ * 頭痛日誌映射
+ * 清單映射產生的程式碼會以來源大小預先配置 ArrayList
+ */
+@Mapper(config = MappingConfig.class)
+public interface HeadacheLogMapper {
+
+    /**
+     * user.id 只讀取 LAZY 代理的識別碼，不會觸發載入用戶
+     */
+    @Mapping(target = "userId", source = "user.id")
+    HeadacheLogDTO toDTO(HeadacheLog log);
+
+    List<HeadacheLogDTO> toDTOs(List<HeadacheLog> logs);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "user", source = "user")
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
+    HeadacheLog toEntity(HeadacheLogDTO dto, User user);
+
+    /**
+     * 就地更新可編輯欄位；所屬用戶、冪等鍵與稽核欄位不變，DTO 中的 null 會清空對應欄位
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "user", ignore = true)
+    @Mapping(target = "clientId", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
+    void updateEntity(HeadacheLogDTO dto, @MappingTarget HeadacheLog log);
+
+    HeadacheLogTombstoneDTO toTombstoneDTO(HeadacheLogTombstone tombstone);
+
+    List<HeadacheLogTombstoneDTO> toTombstoneDTOs(List<HeadacheLogTombstone> tombstones);
+}
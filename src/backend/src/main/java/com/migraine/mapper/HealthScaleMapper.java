@@ -0,0 +1,27 @@
+package com.migraine.mapper;
+
+import com.migraine.dto.HealthScaleDTO;
+import com.migraine.entity.HealthScale;
+import com.migraine.entity.User;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * 健康量表映射（scaleType 以列舉名稱互轉，未知類型拋出 IllegalArgumentException）
+ * 分數、等級與判讀由 ScaleScoringEngine 依答案計算，不採用客戶端傳入的值
+ */
+@Mapper(config = MappingConfig.class)
+public interface HealthScaleMapper {
+
+    @Mapping(target = "userId", source = "user.id")
+    HealthScaleDTO toDTO(HealthScale scale);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "user", source = "user")
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "score", ignore = true)
+    @Mapping(target = "level", ignore = true)
+    @Mapping(target = "interpretation", ignore = true)
+    @Mapping(target = "scoringVersion", ignore = true)
+    HealthScale toEntity(HealthScaleDTO dto, User user);
+}
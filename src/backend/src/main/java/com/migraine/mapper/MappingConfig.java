@@ -0,0 +1,16 @@
+package com.migraine.mapper;
+
+import org.mapstruct.MapperConfig;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * 所有 MapStruct 映射器的共用設定
+ * 映射程式碼於編譯期產生；目標欄位未被映射時編譯失敗，新增欄位不會被默默漏掉
+ */
+@MapperConfig(
+        componentModel = MappingConstants.ComponentModel.SPRING,
+        unmappedTargetPolicy = ReportingPolicy.ERROR
+)
+public interface MappingConfig {
+}
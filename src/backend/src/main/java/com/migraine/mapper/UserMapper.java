@@ -0,0 +1,14 @@
+package com.migraine.mapper;
+
+import com.migraine.dto.UserDTO;
+import com.migraine.entity.User;
+import org.mapstruct.Mapper;
+
+/**
+ * 用戶映射（role 以列舉名稱輸出）
+ */
+@Mapper(config = MappingConfig.class)
+public interface UserMapper {
+
+    UserDTO toDTO(User user);
+}
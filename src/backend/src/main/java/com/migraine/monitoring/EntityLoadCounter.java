@@ -0,0 +1,18 @@
+package com.migraine.monitoring;
+
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+
+/**
+ * 計算目前請求載入的實體數（依實體類型），用於發現 N+1 查詢
+ */
+public class EntityLoadCounter implements PostLoadEventListener {
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.recordEntityLoad(event.getPersister().getEntityName());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.migraine.monitoring;
+
+import com.migraine.exception.StatementBudgetExceededException;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * 計算目前請求由 Hibernate 送出的 SQL 語句數（含原生查詢），SQL 內容不做修改
+ * 啟用 fail-on-exceed 時，超過端點預算的語句在送出前即拋出例外
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats != null) {
+            stats.recordStatement(sql);
+            if (stats.shouldFailOn()) {
+                throw new StatementBudgetExceededException(stats.getBudget(), sql);
+            }
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,101 @@
+package com.migraine.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.stream.Collectors;
+
+/**
+ * 每個請求的 SQL 語句數與實體載入數
+ * 以 http.server.requests.statements / http.server.requests.entities 匯出（依端點路徑分組），
+ * 超過 slow-request 門檻或端點 SQL 預算的請求記錄語句數與執行次數最多的 SQL
+ * 排在 Spring Security 之前，JWT 驗證時的查詢也會計入
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${monitoring.slow-request.threshold:1000}")
+    private long slowRequestThreshold;
+
+    @Value("${monitoring.slow-request.top-queries:5}")
+    private int topQueries;
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestQueryStats stats = RequestQueryStats.start();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            RequestQueryStats.clear();
+            record(request, response, stats, elapsedMillis);
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response,
+                        RequestQueryStats stats, long elapsedMillis) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("http.server.requests.statements")
+                .description("每個請求送出的 SQL 語句數")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getStatementCount());
+        DistributionSummary.builder("http.server.requests.entities")
+                .description("每個請求載入的實體數")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getEntityLoadCount());
+
+        if (stats.isOverBudget()) {
+            meterRegistry.counter("http.server.requests.statement_budget.exceeded",
+                    "method", request.getMethod(), "uri", uri).increment();
+            log.warn("Statement budget exceeded {} {} -> {}: {} SQL statements (budget {}); top queries:{}",
+                    request.getMethod(), uri, response.getStatus(), stats.getStatementCount(), stats.getBudget(),
+                    formatTopStatements(stats));
+        }
+
+        if (elapsedMillis >= slowRequestThreshold) {
+            log.warn("Slow request {} {} -> {} in {} ms: {} SQL statements, {} entities loaded {}; top queries:{}",
+                    request.getMethod(), uri, response.getStatus(), elapsedMillis,
+                    stats.getStatementCount(), stats.getEntityLoadCount(), stats.getEntityCounts(),
+                    formatTopStatements(stats));
+        }
+    }
+
+    private String formatTopStatements(RequestQueryStats stats) {
+        return stats.topStatements(topQueries).stream()
+                .map(e -> System.lineSeparator() + "  " + e.getValue() + "x " + abbreviate(e.getKey()))
+                .collect(Collectors.joining());
+    }
+
+    private String abbreviate(String sql) {
+        String singleLine = sql.replaceAll("\\s+", " ").trim();
+        return singleLine.length() > 300 ? singleLine.substring(0, 300) + "..." : singleLine;
+    }
+}
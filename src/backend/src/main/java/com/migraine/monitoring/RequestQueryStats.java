@@ -0,0 +1,94 @@
+package com.migraine.monitoring;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 單一請求的 SQL 語句數與實體載入數（每個請求執行緒一份）
+ */
+public final class RequestQueryStats {
+
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    /** 記錄的不同 SQL 數量上限，避免大量動態語句佔用記憶體 */
+    private static final int MAX_DISTINCT_STATEMENTS = 100;
+
+    private int statementCount;
+    private int entityLoadCount;
+    private int budget;  // 0 代表不檢查
+    private boolean failOnExceed;
+    private final Map<String, Integer> statementCounts = new HashMap<>();
+    private final Map<String, Integer> entityCounts = new HashMap<>();
+
+    static RequestQueryStats start() {
+        RequestQueryStats stats = new RequestQueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 目前請求的統計；不在 HTTP 請求中（排程任務、啟動流程）時回傳 null
+     */
+    static RequestQueryStats current() {
+        return CURRENT.get();
+    }
+
+    void recordStatement(String sql) {
+        statementCount++;
+        if (statementCounts.size() < MAX_DISTINCT_STATEMENTS || statementCounts.containsKey(sql)) {
+            statementCounts.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void setBudget(int budget, boolean failOnExceed) {
+        this.budget = budget;
+        this.failOnExceed = failOnExceed;
+    }
+
+    int getBudget() {
+        return budget;
+    }
+
+    boolean isOverBudget() {
+        return budget > 0 && statementCount > budget;
+    }
+
+    /**
+     * 剛超過預算的那一條語句（之後的語句不再重複判定，讓錯誤處理流程可以正常執行）
+     */
+    boolean shouldFailOn() {
+        return failOnExceed && budget > 0 && statementCount == budget + 1;
+    }
+
+    void recordEntityLoad(String entityName) {
+        entityLoadCount++;
+        entityCounts.merge(entityName, 1, Integer::sum);
+    }
+
+    int getStatementCount() {
+        return statementCount;
+    }
+
+    int getEntityLoadCount() {
+        return entityLoadCount;
+    }
+
+    Map<String, Integer> getEntityCounts() {
+        return entityCounts;
+    }
+
+    /**
+     * 執行次數最多的前 limit 個 SQL
+     */
+    List<Map.Entry<String, Integer>> topStatements(int limit) {
+        return statementCounts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(limit)
+                .toList();
+    }
+}
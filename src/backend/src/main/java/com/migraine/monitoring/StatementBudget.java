@@ -0,0 +1,17 @@
+package com.migraine.monitoring;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 端點每個請求允許送出的 SQL 語句數上限（含 JWT 驗證時的查詢）
+ * 超過時記錄警告；monitoring.statement-budget.fail-on-exceed=true 時直接讓請求失敗
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementBudget {
+
+    int value();
+}
@@ -0,0 +1,40 @@
+package com.migraine.monitoring;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * 依處理請求的端點設定本次請求的 SQL 語句預算（方法上的 @StatementBudget 優先於類別上的）
+ */
+@Component
+public class StatementBudgetInterceptor implements HandlerInterceptor {
+
+    @Value("${monitoring.statement-budget.default:0}") // 0 代表未標註的端點不檢查
+    private int defaultBudget;
+
+    @Value("${monitoring.statement-budget.fail-on-exceed:false}")
+    private boolean failOnExceed;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestQueryStats stats = RequestQueryStats.current();
+        if (stats == null || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+
+        StatementBudget budget = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), StatementBudget.class);
+        if (budget == null) {
+            budget = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), StatementBudget.class);
+        }
+        int limit = budget != null ? budget.value() : defaultBudget;
+        if (limit > 0) {
+            stats.setBudget(limit, failOnExceed);
+        }
+        return true;
+    }
+}
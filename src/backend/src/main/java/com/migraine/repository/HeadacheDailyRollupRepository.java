@@ -0,0 +1,50 @@
+package com.migraine.repository;
+
+import com.migraine.entity.HeadacheDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 每日頭痛彙總資料存取層
+ * 彙總以 INSERT ... SELECT 在資料庫內計算，不載入任何日誌實體
+ */
+@Repository
+public interface HeadacheDailyRollupRepository extends JpaRepository<HeadacheDailyRollup, HeadacheDailyRollup.Key> {
+
+    @Modifying
+    @Query("DELETE FROM HeadacheDailyRollup d WHERE d.userId = :userId " +
+           "AND d.statDate >= :from AND d.statDate < :to")
+    int deleteByUserIdAndDateRange(Long userId, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("INSERT INTO HeadacheDailyRollup " +
+           "(userId, statDate, logCount, intensitySum, intensityMax, durationSum, medicationCount, severeCount) " +
+           "SELECT h.user.id, CAST(h.logDate AS LocalDate), COUNT(h), SUM(h.intensity), MAX(h.intensity), " +
+           "COALESCE(SUM(h.durationHours), 0), " +
+           "SUM(CASE WHEN h.medication <> '' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN h.intensity >= 7 THEN 1 ELSE 0 END) " +
+           "FROM HeadacheLog h WHERE h.user.id = :userId " +
+           "AND h.logDate >= :from AND h.logDate < :to " +
+           "GROUP BY h.user.id, CAST(h.logDate AS LocalDate)")
+    int insertFromLogs(Long userId, LocalDateTime from, LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM HeadacheDailyRollup d WHERE d.userId BETWEEN :firstUserId AND :lastUserId")
+    int deleteByUserIdRange(Long firstUserId, Long lastUserId);
+
+    @Modifying
+    @Query("INSERT INTO HeadacheDailyRollup " +
+           "(userId, statDate, logCount, intensitySum, intensityMax, durationSum, medicationCount, severeCount) " +
+           "SELECT h.user.id, CAST(h.logDate AS LocalDate), COUNT(h), SUM(h.intensity), MAX(h.intensity), " +
+           "COALESCE(SUM(h.durationHours), 0), " +
+           "SUM(CASE WHEN h.medication <> '' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN h.intensity >= 7 THEN 1 ELSE 0 END) " +
+           "FROM HeadacheLog h WHERE h.user.id BETWEEN :firstUserId AND :lastUserId " +
+           "GROUP BY h.user.id, CAST(h.logDate AS LocalDate)")
+    int insertFromLogsForUserIdRange(Long firstUserId, Long lastUserId);
+}
@@ -1,21 +1,107 @@
 package com.migraine.repository;
 
+import com.migraine.dto.HeadacheLogDTO;
+import com.migraine.dto.PatientHeadacheSummaryDTO;
 import com.migraine.entity.HeadacheLog;
+import com.migraine.repository.projection.HeadacheLogTombstone;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * 頭痛日誌資料存取層
+ * JPQL 查詢經實體上的 @SQLRestriction 自動排除已刪除的日誌；需要包含刪除標記的查詢使用原生 SQL
  */
 @Repository
 public interface HeadacheLogRepository extends JpaRepository<HeadacheLog, Long> {
 
     List<HeadacheLog> findByUserIdOrderByLogDateDesc(Long userId);
 
+    /**
+     * 依冪等鍵查詢（包含已刪除的日誌，唯一索引同樣涵蓋已刪除的列）
+     */
+    @Query(value = "SELECT * FROM headache_logs WHERE user_id = :userId AND client_id = :clientId",
+           nativeQuery = true)
+    Optional<HeadacheLog> findByUserIdAndClientId(Long userId, String clientId);
+
+    @Query(value = "SELECT client_id FROM headache_logs WHERE user_id = :userId AND client_id IN (:clientIds)",
+           nativeQuery = true)
+    Set<String> findExistingClientIds(Long userId, Collection<String> clientIds);
+
+    /**
+     * 增量同步：since 之後新增或修改的日誌（走 idx_headache_logs_user_updated 索引）
+     */
+    @Query("SELECT new com.migraine.dto.HeadacheLogDTO(" +
+           "h.id, h.user.id, h.logDate, h.intensity, h.symptoms, h.medication, h.notes, " +
+           "h.durationHours, h.location, h.triggers, h.clientId, h.createdAt, h.updatedAt) " +
+           "FROM HeadacheLog h WHERE h.user.id = :userId AND h.updatedAt >= :since " +
+           "ORDER BY h.updatedAt, h.id")
+    List<HeadacheLogDTO> findDTOsChangedSince(Long userId, LocalDateTime since);
+
+    /**
+     * 增量同步：since 之後刪除的日誌
+     */
+    @Query(value = "SELECT id, client_id AS clientId, deleted_at AS deletedAt FROM headache_logs " +
+                   "WHERE user_id = :userId AND updated_at >= :since AND deleted_at IS NOT NULL " +
+                   "ORDER BY updated_at, id",
+           nativeQuery = true)
+    List<HeadacheLogTombstone> findTombstonesSince(Long userId, LocalDateTime since);
+
+    /**
+     * 唯讀 DTO 投影：只查詢需要的欄位，不建立受管實體，也不觸碰 User 代理
+     */
+    @Query("SELECT new com.migraine.dto.HeadacheLogDTO(" +
+           "h.id, h.user.id, h.logDate, h.intensity, h.symptoms, h.medication, h.notes, " +
+           "h.durationHours, h.location, h.triggers, h.clientId, h.createdAt, h.updatedAt) " +
+           "FROM HeadacheLog h WHERE h.user.id = :userId " +
+           "ORDER BY h.logDate DESC")
+    List<HeadacheLogDTO> findDTOsByUserId(Long userId);
+
+    @Query("SELECT new com.migraine.dto.HeadacheLogDTO(" +
+           "h.id, h.user.id, h.logDate, h.intensity, h.symptoms, h.medication, h.notes, " +
+           "h.durationHours, h.location, h.triggers, h.clientId, h.createdAt, h.updatedAt) " +
+           "FROM HeadacheLog h WHERE h.user.id = :userId " +
+           "AND h.logDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY h.logDate DESC")
+    List<HeadacheLogDTO> findDTOsByUserIdAndLogDateBetween(Long userId, LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * 游標分頁第一頁（依 idx_headache_logs_user_date_id 索引順序）
+     */
+    List<HeadacheLog> findByUserIdOrderByLogDateDescIdDesc(Long userId, Pageable pageable);
+
+    /**
+     * 游標分頁後續頁：從 (logDate, id) 之後繼續，不使用 OFFSET
+     */
+    @Query("SELECT h FROM HeadacheLog h WHERE h.user.id = :userId " +
+           "AND (h.logDate < :logDate OR (h.logDate = :logDate AND h.id < :id)) " +
+           "ORDER BY h.logDate DESC, h.id DESC")
+    List<HeadacheLog> findPageAfter(Long userId, LocalDateTime logDate, Long id, Pageable pageable);
+
+    /**
+     * 以串流方式逐筆讀取用戶所有日誌（須在交易內消費並關閉）
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT h FROM HeadacheLog h WHERE h.user.id = :userId " +
+           "ORDER BY h.logDate DESC, h.id DESC")
+    Stream<HeadacheLog> streamByUserId(Long userId);
+
     List<HeadacheLog> findByUserIdAndLogDateBetweenOrderByLogDateDesc(
         Long userId, 
         LocalDateTime startDate, 
@@ -34,4 +120,20 @@ public interface HeadacheLogRepository extends JpaRepository<HeadacheLog, Long>
     @Query("SELECT COUNT(h) FROM HeadacheLog h WHERE h.user.id = :userId " +
            "AND h.logDate BETWEEN :startDate AND :endDate")
     Long countLogsByDateRange(Long userId, LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * 群體統計：所有啟用中病患各一列
+     */
+    @Query("SELECT new com.migraine.dto.PatientHeadacheSummaryDTO(" +
+           "u.id, u.name, u.patientId, COUNT(h), " +
+           "COUNT(DISTINCT CAST(h.logDate AS LocalDate)), AVG(h.intensity), MAX(h.intensity), " +
+           "COUNT(DISTINCT CASE WHEN h.intensity >= 7 THEN CAST(h.logDate AS LocalDate) END), " +
+           "COUNT(DISTINCT CASE WHEN h.medication <> '' THEN CAST(h.logDate AS LocalDate) END), " +
+           "MAX(h.logDate)) " +
+           "FROM HeadacheLog h JOIN h.user u " +
+           "WHERE u.role = 'PATIENT' AND u.isActive = true " +
+           "AND h.logDate >= :from AND h.logDate < :to " +
+           "GROUP BY u.id, u.name, u.patientId " +
+           "ORDER BY u.id")
+    List<PatientHeadacheSummaryDTO> getCohortSummaries(LocalDateTime from, LocalDateTime to);
 }
@@ -0,0 +1,47 @@
+package com.migraine.repository;
+
+import com.migraine.dto.FrequencyDTO;
+import com.migraine.entity.HeadacheLogTag;
+import com.migraine.entity.HeadacheTag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 日誌標籤關聯資料存取層
+ * 頻率統計走 (user_id, log_date, tag_id) 與 (log_date, tag_id, user_id) 索引的區間掃描
+ */
+@Repository
+public interface HeadacheLogTagRepository extends JpaRepository<HeadacheLogTag, HeadacheLogTag.Key> {
+
+    @Modifying
+    @Query("DELETE FROM HeadacheLogTag lt WHERE lt.logId IN :logIds")
+    int deleteByLogIds(Collection<Long> logIds);
+
+    /**
+     * 單一病患某類標籤的出現次數
+     */
+    @Query("SELECT new com.migraine.dto.FrequencyDTO(t.name, COUNT(lt)) " +
+           "FROM HeadacheLogTag lt JOIN HeadacheTag t ON t.id = lt.tagId " +
+           "WHERE lt.userId = :userId AND t.category = :category " +
+           "AND lt.logDate >= :from AND lt.logDate < :to " +
+           "GROUP BY t.name ORDER BY COUNT(lt) DESC")
+    List<FrequencyDTO> countByUserIdAndCategory(Long userId, HeadacheTag.Category category,
+                                                LocalDateTime from, LocalDateTime to);
+
+    /**
+     * 群體（所有啟用中的病患）某類標籤的出現次數
+     */
+    @Query("SELECT new com.migraine.dto.FrequencyDTO(t.name, COUNT(lt)) " +
+           "FROM HeadacheLogTag lt JOIN HeadacheTag t ON t.id = lt.tagId " +
+           "JOIN User u ON u.id = lt.userId " +
+           "WHERE u.role = 'PATIENT' AND u.isActive = true AND t.category = :category " +
+           "AND lt.logDate >= :from AND lt.logDate < :to " +
+           "GROUP BY t.name ORDER BY COUNT(lt) DESC")
+    List<FrequencyDTO> countCohortByCategory(HeadacheTag.Category category, LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,64 @@
+package com.migraine.repository;
+
+import com.migraine.dto.MonthlyHeadacheStatsDTO;
+import com.migraine.entity.HeadacheMonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 每月頭痛彙總資料存取層（由每日彙總推導）
+ */
+@Repository
+public interface HeadacheMonthlyRollupRepository extends JpaRepository<HeadacheMonthlyRollup, HeadacheMonthlyRollup.Key> {
+
+    /**
+     * 讀取月份區間的統計（yyyymm 格式，含首尾），每月一列
+     */
+    @Query("SELECT new com.migraine.dto.MonthlyHeadacheStatsDTO(" +
+           "m.statYear, m.statMonth, m.logCount, m.headacheDays, " +
+           "CAST(m.intensitySum AS Double) / m.logCount, m.intensityMax, " +
+           "m.severeDays, m.medicationDays, m.durationSum) " +
+           "FROM HeadacheMonthlyRollup m WHERE m.userId = :userId " +
+           "AND m.statYear * 100 + m.statMonth BETWEEN :fromYearMonth AND :toYearMonth " +
+           "ORDER BY m.statYear, m.statMonth")
+    List<MonthlyHeadacheStatsDTO> findStats(Long userId, int fromYearMonth, int toYearMonth);
+
+    @Modifying
+    @Query("DELETE FROM HeadacheMonthlyRollup m WHERE m.userId = :userId " +
+           "AND m.statYear * 100 + m.statMonth BETWEEN :fromYearMonth AND :toYearMonth")
+    int deleteByUserIdAndMonthRange(Long userId, int fromYearMonth, int toYearMonth);
+
+    @Modifying
+    @Query("INSERT INTO HeadacheMonthlyRollup " +
+           "(userId, statYear, statMonth, headacheDays, logCount, intensitySum, intensityMax, " +
+           "durationSum, medicationDays, severeDays) " +
+           "SELECT d.userId, YEAR(d.statDate), MONTH(d.statDate), COUNT(d), SUM(d.logCount), " +
+           "SUM(d.intensitySum), MAX(d.intensityMax), SUM(d.durationSum), " +
+           "SUM(CASE WHEN d.medicationCount > 0 THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN d.severeCount > 0 THEN 1 ELSE 0 END) " +
+           "FROM HeadacheDailyRollup d WHERE d.userId = :userId " +
+           "AND d.statDate >= :from AND d.statDate < :to " +
+           "GROUP BY d.userId, YEAR(d.statDate), MONTH(d.statDate)")
+    int insertFromDaily(Long userId, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM HeadacheMonthlyRollup m WHERE m.userId BETWEEN :firstUserId AND :lastUserId")
+    int deleteByUserIdRange(Long firstUserId, Long lastUserId);
+
+    @Modifying
+    @Query("INSERT INTO HeadacheMonthlyRollup " +
+           "(userId, statYear, statMonth, headacheDays, logCount, intensitySum, intensityMax, " +
+           "durationSum, medicationDays, severeDays) " +
+           "SELECT d.userId, YEAR(d.statDate), MONTH(d.statDate), COUNT(d), SUM(d.logCount), " +
+           "SUM(d.intensitySum), MAX(d.intensityMax), SUM(d.durationSum), " +
+           "SUM(CASE WHEN d.medicationCount > 0 THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN d.severeCount > 0 THEN 1 ELSE 0 END) " +
+           "FROM HeadacheDailyRollup d WHERE d.userId BETWEEN :firstUserId AND :lastUserId " +
+           "GROUP BY d.userId, YEAR(d.statDate), MONTH(d.statDate)")
+    int insertFromDailyForUserIdRange(Long firstUserId, Long lastUserId);
+}
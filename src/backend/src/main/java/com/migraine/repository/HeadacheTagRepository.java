@@ -0,0 +1,28 @@
+package com.migraine.repository;
+
+import com.migraine.entity.HeadacheTag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 頭痛日誌標籤字典資料存取層
+ */
+@Repository
+public interface HeadacheTagRepository extends JpaRepository<HeadacheTag, Short> {
+
+    Optional<HeadacheTag> findByCategoryAndName(HeadacheTag.Category category, String name);
+
+    List<HeadacheTag> findByNameIn(Collection<String> names);
+
+    /**
+     * 在目前交易內新增字典項目；已存在（或其他交易同時新增並已提交）時不回傳任何列
+     */
+    @Query(value = "INSERT INTO headache_tags (category, name) VALUES (:category, :name) " +
+                   "ON CONFLICT (category, name) DO NOTHING RETURNING id", nativeQuery = true)
+    Optional<Short> insertIfAbsent(String category, String name);
+}
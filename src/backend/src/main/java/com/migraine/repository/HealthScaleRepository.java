@@ -1,18 +1,20 @@
 package com.migraine.repository;
 
+import com.migraine.dto.HealthScaleDTO;
+import com.migraine.dto.HealthScaleSummaryDTO;
 import com.migraine.entity.HealthScale;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Optional;
 
 /**
  * 健康量表資料存取層
  */
 @Repository
-public interface HealthScaleRepository extends JpaRepository<HealthScale, Long> {
+public interface HealthScaleRepository extends JpaRepository<HealthScale, Long>, LatestScaleScoreRepository {
 
     List<HealthScale> findByUserIdOrderByTestDateDesc(Long userId);
 
@@ -21,9 +23,37 @@ public interface HealthScaleRepository extends JpaRepository<HealthScale, Long>
         HealthScale.ScaleType scaleType
     );
 
-    @Query("SELECT h FROM HealthScale h WHERE h.user.id = :userId " +
-           "AND h.scaleType = :scaleType " +
-           "ORDER BY h.testDate DESC " +
-           "LIMIT 1")
-    Optional<HealthScale> findLatestByUserIdAndScaleType(Long userId, HealthScale.ScaleType scaleType);
+    /**
+     * 唯讀 DTO 投影（含答案與判讀）
+     */
+    @Query("SELECT new com.migraine.dto.HealthScaleDTO(" +
+           "h.id, h.user.id, CAST(h.scaleType AS String), h.testDate, h.score, h.level, " +
+           "h.answers, h.interpretation, h.createdAt) " +
+           "FROM HealthScale h WHERE h.user.id = :userId " +
+           "ORDER BY h.testDate DESC")
+    List<HealthScaleDTO> findDTOsByUserId(Long userId);
+
+    @Query("SELECT new com.migraine.dto.HealthScaleDTO(" +
+           "h.id, h.user.id, CAST(h.scaleType AS String), h.testDate, h.score, h.level, " +
+           "h.answers, h.interpretation, h.createdAt) " +
+           "FROM HealthScale h WHERE h.user.id = :userId AND h.scaleType = :scaleType " +
+           "ORDER BY h.testDate DESC")
+    List<HealthScaleDTO> findDTOsByUserIdAndScaleType(Long userId, HealthScale.ScaleType scaleType);
+
+    /**
+     * 摘要投影：不讀取 answers/interpretation 等 TEXT 欄位
+     */
+    @Query("SELECT new com.migraine.dto.HealthScaleSummaryDTO(" +
+           "h.id, h.user.id, CAST(h.scaleType AS String), h.testDate, h.score, h.level, h.createdAt) " +
+           "FROM HealthScale h WHERE h.user.id = :userId " +
+           "ORDER BY h.testDate DESC")
+    List<HealthScaleSummaryDTO> findSummariesByUserId(Long userId);
+
+    /**
+     * 計分版本與目前定義不同（或尚未由伺服器計分）的紀錄 ID，依 ID 分頁（keyset）
+     */
+    @Query("SELECT h.id FROM HealthScale h WHERE h.scaleType = :scaleType " +
+           "AND (h.scoringVersion IS NULL OR h.scoringVersion <> :version) AND h.id > :afterId " +
+           "ORDER BY h.id")
+    List<Long> findIdsToRescore(HealthScale.ScaleType scaleType, int version, Long afterId, Pageable pageable);
 }
@@ -0,0 +1,17 @@
+package com.migraine.repository;
+
+import com.migraine.dto.LatestScaleScoreDTO;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 每位用戶每種量表的最近一次結果（由 LatestScaleScoreRepositoryImpl 依資料庫選擇查詢方式）
+ */
+public interface LatestScaleScoreRepository {
+
+    /**
+     * 以一條 SQL 取得多位用戶各量表的最近一次結果；未做過的量表不會出現在結果中
+     */
+    List<LatestScaleScoreDTO> findLatestPerScaleType(Collection<Long> userIds);
+}
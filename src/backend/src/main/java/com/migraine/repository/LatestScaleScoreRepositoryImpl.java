@@ -0,0 +1,60 @@
+package com.migraine.repository;
+
+import com.migraine.dto.LatestScaleScoreDTO;
+import com.migraine.entity.HealthScale;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * PostgreSQL 使用 DISTINCT ON，每組 (user_id, scale_type) 在 idx_health_scales_latest 上只讀第一筆；
+ * 其他資料庫（H2 開發環境）改用 JPQL 的 NOT EXISTS 寫法，結果相同
+ */
+@RequiredArgsConstructor
+public class LatestScaleScoreRepositoryImpl implements LatestScaleScoreRepository {
+
+    private static final String DISTINCT_ON_SQL =
+            "SELECT DISTINCT ON (user_id, scale_type) id, user_id, scale_type, test_date, score, level " +
+            "FROM health_scales WHERE user_id IN (:userIds) " +
+            "ORDER BY user_id, scale_type, test_date DESC, id DESC";
+
+    private static final String PORTABLE_JPQL =
+            "SELECT new com.migraine.dto.LatestScaleScoreDTO(" +
+            "h.user.id, CAST(h.scaleType AS String), h.testDate, h.score, h.level) " +
+            "FROM HealthScale h WHERE h.user.id IN :userIds " +
+            "AND NOT EXISTS (SELECT 1 FROM HealthScale n WHERE n.user.id = h.user.id AND n.scaleType = h.scaleType " +
+            "AND (n.testDate > h.testDate OR (n.testDate = h.testDate AND n.id > h.id))) " +
+            "ORDER BY h.user.id";
+
+    private final EntityManager entityManager;
+
+    private Boolean postgres;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<LatestScaleScoreDTO> findLatestPerScaleType(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        if (isPostgres()) {
+            return entityManager.createNativeQuery(DISTINCT_ON_SQL, HealthScale.LATEST_SCORE_MAPPING)
+                    .setParameter("userIds", userIds)
+                    .getResultList();
+        }
+        return entityManager.createQuery(PORTABLE_JPQL, LatestScaleScoreDTO.class)
+                .setParameter("userIds", userIds)
+                .getResultList();
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+        }
+        return postgres;
+    }
+}
@@ -2,12 +2,15 @@ package com.migraine.repository;
 
 import com.migraine.entity.RefreshToken;
 import com.migraine.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -16,15 +19,44 @@ import java.util.Optional;
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
-    Optional<RefreshToken> findByToken(String token);
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    @EntityGraph(RefreshToken.GRAPH_WITH_USER)
+    Optional<RefreshToken> findWithUserByTokenHash(String tokenHash);
+
+    /**
+     * 條件式撤銷：僅在 Token 未撤銷且未過期時更新，並以 RETURNING 直接取得用戶 ID；
+     * 有回傳值代表本次請求取得旋轉權（一個語句完成判斷與讀取）
+     */
+    @Query(value = "UPDATE refresh_tokens SET revoked = TRUE, revoked_at = :now " +
+                   "WHERE token_hash = :tokenHash AND revoked = FALSE AND expires_at > :now " +
+                   "RETURNING user_id", nativeQuery = true)
+    Optional<Long> revokeIfActive(String tokenHash, LocalDateTime now);
 
     @Modifying
     @Query("UPDATE RefreshToken rt SET rt.revoked = true, rt.revokedAt = :revokedAt WHERE rt.user = :user")
     void revokeAllByUser(User user, LocalDateTime revokedAt);
 
     @Modifying
-    @Query("DELETE FROM RefreshToken rt WHERE rt.expiresAt < :now")
-    void deleteExpiredTokens(LocalDateTime now);
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true, rt.revokedAt = :revokedAt " +
+           "WHERE rt.user.id = :userId AND rt.revoked = false")
+    int revokeAllByUserId(Long userId, LocalDateTime revokedAt);
+
+    /**
+     * 鎖定一批可清除的 Token（已過期，或撤銷超過保留期限）
+     * SKIP LOCKED 讓多個節點同時清除時各自取得不同的列
+     */
+    @Query(value = "SELECT id FROM refresh_tokens " +
+                   "WHERE expires_at < :expiredBefore OR (revoked = TRUE AND revoked_at < :revokedBefore) " +
+                   "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockPurgeableIds(LocalDateTime expiredBefore, LocalDateTime revokedBefore, int limit);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.id IN :ids")
+    int deleteByIds(Collection<Long> ids);
+
+    @Query("SELECT MIN(rt.expiresAt) FROM RefreshToken rt WHERE rt.expiresAt < :now")
+    Optional<LocalDateTime> findOldestExpiresAtBefore(LocalDateTime now);
 
     @Query("SELECT COUNT(rt) FROM RefreshToken rt WHERE rt.user = :user AND rt.revoked = false")
     long countValidTokensByUser(User user);
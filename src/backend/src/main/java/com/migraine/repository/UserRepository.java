@@ -1,7 +1,12 @@
 package com.migraine.repository;
 
 import com.migraine.entity.User;
+import com.migraine.repository.projection.UserAccountStatus;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -12,7 +17,7 @@ import java.util.Optional;
  * 用戶資料存取層
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRosterRepository {
 
     Optional<User> findByEmail(String email);
 
@@ -20,9 +25,24 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     List<User> findByRole(User.UserRole role);
 
-    @Query("SELECT u FROM User u WHERE u.role = 'PATIENT' AND u.isActive = true")
-    List<User> findAllActivePatients();
-
     @Query("SELECT u FROM User u WHERE u.role = 'PATIENT' AND u.patientId = :patientId")
     Optional<User> findByPatientId(String patientId);
+
+    @Query("SELECT u.isActive AS isActive, u.role AS role FROM User u WHERE u.id = :id")
+    Optional<UserAccountStatus> findAccountStatusById(Long id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.email = :email")
+    int updatePasswordByEmail(String email, String password);
+
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsAfter(Long afterId, Pageable pageable);
+
+    /**
+     * 鎖定用戶列直到交易結束，序列化同一用戶的彙總重算
+     * PESSIMISTIC_WRITE 在 PostgreSQL 為 FOR NO KEY UPDATE，不與寫入日誌時外鍵檢查的 FOR KEY SHARE 互斥
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u.id FROM User u WHERE u.id BETWEEN :firstUserId AND :lastUserId ORDER BY u.id")
+    List<Long> lockIdRange(Long firstUserId, Long lastUserId);
 }
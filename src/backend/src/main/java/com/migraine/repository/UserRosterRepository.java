@@ -0,0 +1,23 @@
+package com.migraine.repository;
+
+import com.migraine.dto.PatientRosterDTO;
+import com.migraine.dto.PatientRosterFilter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 病患名冊查詢（篩選條件為動態組合，由 UserRosterRepositoryImpl 實作）
+ */
+public interface UserRosterRepository {
+
+    /**
+     * 以 (排序鍵, id) 游標取得一頁啟用中的病患與其摘要，摘要以子查詢在同一條 SQL 內計算
+     *
+     * @param afterKey 上一頁最後一列的排序鍵；第一頁為 null
+     * @param afterId  上一頁最後一列的用戶 ID；第一頁為 null
+     * @param headacheDaysFrom 計算頭痛天數的起始日（含）
+     */
+    List<PatientRosterDTO> findRosterPage(PatientRosterFilter filter, String afterKey, Long afterId,
+                                          LocalDate headacheDaysFrom, int limit);
+}
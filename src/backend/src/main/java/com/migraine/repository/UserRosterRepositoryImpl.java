@@ -0,0 +1,78 @@
+package com.migraine.repository;
+
+import com.migraine.dto.PatientRosterDTO;
+import com.migraine.dto.PatientRosterFilter;
+import com.migraine.entity.HealthScale;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 病患名冊查詢實作：只把有指定的條件組進 JPQL，避免 (:param IS NULL OR ...) 讓資料庫無法使用索引
+ */
+@RequiredArgsConstructor
+public class UserRosterRepositoryImpl implements UserRosterRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<PatientRosterDTO> findRosterPage(PatientRosterFilter filter, String afterKey, Long afterId,
+                                                 LocalDate headacheDaysFrom, int limit) {
+        String sortKey = filter.getSort() == PatientRosterFilter.Sort.PATIENT_ID
+                ? "COALESCE(u.patientId, '')"
+                : "u.name";
+        String direction = filter.isDescending() ? "DESC" : "ASC";
+        String after = filter.isDescending() ? "<" : ">";
+
+        StringBuilder jpql = new StringBuilder(
+                "SELECT new com.migraine.dto.PatientRosterDTO(" +
+                "u.id, u.name, u.patientId, u.age, u.gender, " +
+                "(SELECT MAX(h.logDate) FROM HeadacheLog h WHERE h.user.id = u.id), " +
+                "(SELECT COUNT(d) FROM HeadacheDailyRollup d WHERE d.userId = u.id AND d.statDate >= :headacheDaysFrom), " +
+                "(SELECT s.score FROM HealthScale s WHERE s.user.id = u.id AND s.scaleType = :midas " +
+                "ORDER BY s.testDate DESC, s.id DESC LIMIT 1)) " +
+                // 角色以字面值寫入 SQL：部分索引條件為 role = 'PATIENT'，綁定參數時泛用計畫無法證明符合而不使用索引
+                "FROM User u WHERE u.role = com.migraine.entity.User$UserRole.PATIENT AND u.isActive = true");
+        Map<String, Object> params = new HashMap<>();
+        params.put("headacheDaysFrom", headacheDaysFrom);
+        params.put("midas", HealthScale.ScaleType.MIDAS);
+
+        if (filter.getPrefix() != null) {
+            jpql.append(" AND (u.name LIKE :prefix ESCAPE '\\' OR u.patientId LIKE :prefix ESCAPE '\\')");
+            params.put("prefix", escapeLike(filter.getPrefix()) + "%");
+        }
+        if (filter.getGender() != null) {
+            jpql.append(" AND u.gender = :gender");
+            params.put("gender", filter.getGender());
+        }
+        if (filter.getMinAge() != null) {
+            jpql.append(" AND u.age >= :minAge");
+            params.put("minAge", filter.getMinAge());
+        }
+        if (filter.getMaxAge() != null) {
+            jpql.append(" AND u.age <= :maxAge");
+            params.put("maxAge", filter.getMaxAge());
+        }
+        if (afterId != null) {
+            jpql.append(" AND (").append(sortKey).append(' ').append(after).append(" :afterKey OR (")
+                    .append(sortKey).append(" = :afterKey AND u.id ").append(after).append(" :afterId))");
+            params.put("afterKey", afterKey);
+            params.put("afterId", afterId);
+        }
+        jpql.append(" ORDER BY ").append(sortKey).append(' ').append(direction)
+                .append(", u.id ").append(direction);
+
+        TypedQuery<PatientRosterDTO> query = entityManager.createQuery(jpql.toString(), PatientRosterDTO.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
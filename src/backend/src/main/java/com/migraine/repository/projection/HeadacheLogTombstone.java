@@ -0,0 +1,15 @@
+package com.migraine.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * 頭痛日誌刪除標記投影
+ */
+public interface HeadacheLogTombstone {
+
+    Long getId();
+
+    String getClientId();
+
+    LocalDateTime getDeletedAt();
+}
@@ -0,0 +1,13 @@
+package com.migraine.repository.projection;
+
+import com.migraine.entity.User;
+
+/**
+ * 用戶帳號狀態投影（僅啟用狀態與角色）
+ */
+public interface UserAccountStatus {
+
+    Boolean getIsActive();
+
+    User.UserRole getRole();
+}
@@ -0,0 +1,390 @@
+package com.migraine.scoring;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.migraine.entity.HealthScale;
+import com.migraine.exception.InvalidScaleAnswersException;
+import com.migraine.scoring.ScaleDefinition.ComponentKind;
+import com.migraine.scoring.ScaleDefinition.ItemKind;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * 編譯後的量表計分表（不可變，可由多執行緒共用）
+ * 題目以定義中的順序編號，所有規則都展開為以題號 / 成分編號索引的陣列；
+ * 計分時以 Jackson 串流解析答案直接寫入 double[]，之後只做陣列存取與加總，
+ * 不使用反射、不建立 Map，也不逐題查表比對字串以外的結構
+ */
+final class CompiledScale {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    final HealthScale.ScaleType type;
+    final int version;
+
+    // 題目（索引 = 題號）
+    private final String[] keys;
+    private final ItemKind[] kinds;
+    private final int[][] choicePoints;
+    private final double[] max;
+    private final double[][] itemBandMin;
+    private final int[][] itemBandPoints;
+
+    // 成分（索引 = 成分編號）
+    private final String[] componentLabels;
+    private final boolean[] sleepEfficiency;
+    private final int[][] componentItems;
+    private final double[][] componentBandMin;
+    private final int[][] componentBandPoints;
+
+    // 等級
+    private final boolean maxComponentBasis;
+    private final double[] levelMin;
+    private final String[] levelCodes;
+    private final String[] levelInterpretations;
+
+    private CompiledScale(ScaleDefinition definition) {
+        this.type = definition.getScaleType();
+        this.version = definition.getVersion();
+
+        List<ScaleDefinition.Item> items = definition.getItems();
+        int n = items.size();
+        keys = new String[n];
+        kinds = new ItemKind[n];
+        choicePoints = new int[n][];
+        max = new double[n];
+        itemBandMin = new double[n][];
+        itemBandPoints = new int[n][];
+        for (int i = 0; i < n; i++) {
+            ScaleDefinition.Item item = items.get(i);
+            keys[i] = item.getKey();
+            kinds[i] = item.getKind();
+            switch (item.getKind()) {
+                case CHOICE -> choicePoints[i] = require(item.getPoints() != null ? item.getPoints() : definition.getPoints(),
+                        "題目 " + item.getKey() + " 缺少選項計分").clone();
+                case YES_NO -> choicePoints[i] = new int[]{0, 1};
+                case NUMBER -> max[i] = require(item.getMax(), "題目 " + item.getKey() + " 缺少上限");
+                case TIME -> max[i] = MINUTES_PER_DAY - 1;
+            }
+            if (item.getBands() != null) {
+                itemBandMin[i] = bandMins(item.getBands());
+                itemBandPoints[i] = bandPoints(item.getBands());
+            }
+        }
+
+        List<ScaleDefinition.Component> components = definition.getComponents() != null
+                ? definition.getComponents()
+                : List.of(allItems(definition));
+        int c = components.size();
+        componentLabels = new String[c];
+        sleepEfficiency = new boolean[c];
+        componentItems = new int[c][];
+        componentBandMin = new double[c][];
+        componentBandPoints = new int[c][];
+        for (int j = 0; j < c; j++) {
+            ScaleDefinition.Component component = components.get(j);
+            componentLabels[j] = component.getLabel();
+            sleepEfficiency[j] = component.getKind() == ComponentKind.SLEEP_EFFICIENCY;
+            componentItems[j] = component.getItems().stream().mapToInt(this::resolveKey).toArray();
+            if (sleepEfficiency[j] && (componentItems[j].length != 3
+                    || kinds[componentItems[j][0]] != ItemKind.TIME || kinds[componentItems[j][1]] != ItemKind.TIME)) {
+                throw invalidDefinition("睡眠效率成分須依序指定上床時間、起床時間與睡眠時數");
+            }
+            if (component.getBands() != null) {
+                componentBandMin[j] = bandMins(component.getBands());
+                componentBandPoints[j] = bandPoints(component.getBands());
+            }
+        }
+
+        maxComponentBasis = definition.getLevelBasis() == ScaleDefinition.LevelBasis.MAX_COMPONENT;
+        List<ScaleDefinition.Level> levels = require(definition.getLevels(), "缺少等級");
+        levelMin = levels.stream().mapToDouble(ScaleDefinition.Level::getMin).toArray();
+        levelCodes = levels.stream().map(ScaleDefinition.Level::getCode).toArray(String[]::new);
+        levelInterpretations = levels.stream().map(ScaleDefinition.Level::getInterpretation).toArray(String[]::new);
+        requireAscending(levelMin, "等級");
+    }
+
+    /**
+     * 驗證並編譯定義（定義錯誤時拋出 IllegalStateException，讓應用程式無法啟動）
+     */
+    static CompiledScale compile(ScaleDefinition definition) {
+        if (definition.getScaleType() == null || definition.getVersion() <= 0
+                || definition.getItems() == null || definition.getItems().isEmpty()) {
+            throw new IllegalStateException("量表定義缺少 scaleType、version 或 items");
+        }
+        Set<String> seen = new HashSet<>();
+        for (ScaleDefinition.Item item : definition.getItems()) {
+            if (item.getKey() == null || !seen.add(item.getKey())) {
+                throw new IllegalStateException(definition.getScaleType() + " 量表定義的題目代號重複或空白: " + item.getKey());
+            }
+        }
+        return new CompiledScale(definition);
+    }
+
+    private static ScaleDefinition.Component allItems(ScaleDefinition definition) {
+        ScaleDefinition.Component component = new ScaleDefinition.Component();
+        component.setLabel("總分");
+        component.setItems(definition.getItems().stream().map(ScaleDefinition.Item::getKey).toList());
+        return component;
+    }
+
+    /**
+     * 計分；答案為 {"q1":"2","q2":3,...}（值可為字串或數字，YES_NO 題為 "yes"/"no" 或布林）
+     */
+    ScaleScore score(String answers) {
+        double[] values = parse(answers);
+
+        int[] itemScores = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            itemScores[i] = switch (kinds[i]) {
+                case CHOICE, YES_NO -> choicePoints[i][(int) values[i]];
+                case NUMBER -> itemBandMin[i] != null
+                        ? band(itemBandMin[i], itemBandPoints[i], values[i])
+                        : (int) Math.round(values[i]);
+                case TIME -> 0;
+            };
+        }
+
+        int[] componentScores = new int[componentItems.length];
+        int total = 0;
+        int highest = 0;
+        for (int j = 0; j < componentItems.length; j++) {
+            int[] items = componentItems[j];
+            double raw;
+            if (sleepEfficiency[j]) {
+                raw = sleepEfficiencyPercent(values[items[0]], values[items[1]], values[items[2]]);
+            } else {
+                int sum = 0;
+                for (int item : items) {
+                    sum += itemScores[item];
+                }
+                raw = sum;
+            }
+            int score = componentBandMin[j] != null
+                    ? band(componentBandMin[j], componentBandPoints[j], raw)
+                    : (int) raw;
+            componentScores[j] = score;
+            total += score;
+            highest = Math.max(highest, score);
+        }
+
+        int level = bandIndex(levelMin, maxComponentBasis ? highest : total);
+        String interpretation = levelInterpretations[level].replace("{score}", Integer.toString(total));
+        if (maxComponentBasis) {
+            StringJoiner breakdown = new StringJoiner("、", "（", "）");
+            for (int j = 0; j < componentLabels.length; j++) {
+                breakdown.add(componentLabels[j] + " " + componentScores[j]);
+            }
+            interpretation += breakdown;
+        }
+        return new ScaleScore(total, levelCodes[level], interpretation, version);
+    }
+
+    /**
+     * 解析答案到以題號索引的陣列；未知的鍵略過，缺題（YES_NO 以外）視為無效
+     */
+    private double[] parse(String answers) {
+        if (answers == null || answers.isBlank()) {
+            throw invalid("未提供答案");
+        }
+        double[] values = new double[keys.length];
+        Arrays.fill(values, Double.NaN);
+
+        try (JsonParser parser = JSON.createParser(answers)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw invalid("答案須為 JSON 物件");
+            }
+            int expected = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String key = parser.currentName();
+                JsonToken token = parser.nextToken();
+                int index = indexOf(key, expected);
+                if (index < 0 || token == JsonToken.VALUE_NULL) {
+                    parser.skipChildren();
+                    continue;
+                }
+                values[index] = decode(index, parser, token);
+                expected = index + 1;
+            }
+        } catch (IOException ex) {
+            throw invalid("答案不是有效的 JSON");
+        }
+
+        for (int i = 0; i < keys.length; i++) {
+            if (Double.isNaN(values[i])) {
+                if (kinds[i] != ItemKind.YES_NO) {
+                    throw invalid("缺少 " + keys[i] + " 的答案");
+                }
+                values[i] = 0;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 答案通常依題號順序出現，先比對預期位置，不符時才逐一比對（題數最多約 20 題）
+     */
+    private int indexOf(String key, int expected) {
+        if (expected < keys.length && keys[expected].equals(key)) {
+            return expected;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private double decode(int index, JsonParser parser, JsonToken token) throws IOException {
+        String key = keys[index];
+        switch (kinds[index]) {
+            case CHOICE -> {
+                int option = switch (token) {
+                    case VALUE_NUMBER_INT -> parser.getIntValue();
+                    case VALUE_STRING -> parseInt(parser.getText().trim(), key);
+                    default -> throw invalid(key + " 須為選項編號");
+                };
+                if (option < 0 || option >= choicePoints[index].length) {
+                    throw invalid(key + " 的選項超出範圍 0-" + (choicePoints[index].length - 1));
+                }
+                return option;
+            }
+            case YES_NO -> {
+                return switch (token) {
+                    case VALUE_TRUE -> 1;
+                    case VALUE_FALSE -> 0;
+                    case VALUE_STRING -> switch (parser.getText()) {
+                        case "yes" -> 1;
+                        case "no" -> 0;
+                        default -> throw invalid(key + " 須為 yes 或 no");
+                    };
+                    default -> throw invalid(key + " 須為 yes 或 no");
+                };
+            }
+            case NUMBER -> {
+                double value = switch (token) {
+                    case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getDoubleValue();
+                    case VALUE_STRING -> parseDouble(parser.getText().trim(), key);
+                    default -> throw invalid(key + " 須為數值");
+                };
+                if (!(value >= 0 && value <= max[index])) {
+                    throw invalid(key + " 須介於 0 與 " + BigDecimal.valueOf(max[index]).stripTrailingZeros().toPlainString() + " 之間");
+                }
+                return value;
+            }
+            case TIME -> {
+                if (token != JsonToken.VALUE_STRING) {
+                    throw invalid(key + " 須為 HH:mm");
+                }
+                return parseTime(parser.getText().trim(), key);
+            }
+        }
+        throw new IllegalStateException("未知的題目類型: " + kinds[index]);
+    }
+
+    private int parseInt(String text, String key) {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException ex) {
+            throw invalid(key + " 須為選項編號");
+        }
+    }
+
+    private double parseDouble(String text, String key) {
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException ex) {
+            throw invalid(key + " 須為數值");
+        }
+    }
+
+    private int parseTime(String text, String key) {
+        int colon = text.indexOf(':');
+        if (colon < 1 || colon != text.length() - 3) {
+            throw invalid(key + " 須為 HH:mm");
+        }
+        int hours = parseInt(text.substring(0, colon), key);
+        int minutes = parseInt(text.substring(colon + 1), key);
+        if (hours < 0 || hours > 23 || minutes < 0 || minutes > 59) {
+            throw invalid(key + " 須為 HH:mm");
+        }
+        return hours * 60 + minutes;
+    }
+
+    /**
+     * 睡眠效率（%）= 睡眠時數 / 在床時間；起床時間早於上床時間視為隔天，超過 100% 以 100% 計
+     */
+    private static double sleepEfficiencyPercent(double bedTime, double wakeTime, double hoursAsleep) {
+        double minutesInBed = wakeTime - bedTime;
+        if (minutesInBed <= 0) {
+            minutesInBed += MINUTES_PER_DAY;
+        }
+        return Math.min(100.0, hoursAsleep * 60 * 100 / minutesInBed);
+    }
+
+    private static int band(double[] mins, int[] points, double value) {
+        return points[bandIndex(mins, value)];
+    }
+
+    private static int bandIndex(double[] mins, double value) {
+        for (int i = mins.length - 1; i > 0; i--) {
+            if (value >= mins[i]) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private int resolveKey(String key) {
+        int index = indexOf(key, 0);
+        if (index < 0) {
+            throw invalidDefinition("成分引用了不存在的題目 " + key);
+        }
+        return index;
+    }
+
+    private double[] bandMins(List<ScaleDefinition.Band> bands) {
+        double[] mins = bands.stream().mapToDouble(ScaleDefinition.Band::getMin).toArray();
+        requireAscending(mins, "區間");
+        return mins;
+    }
+
+    private static int[] bandPoints(List<ScaleDefinition.Band> bands) {
+        return bands.stream().mapToInt(ScaleDefinition.Band::getPoints).toArray();
+    }
+
+    private void requireAscending(double[] mins, String what) {
+        if (mins.length == 0) {
+            throw invalidDefinition(what + "不可為空");
+        }
+        for (int i = 1; i < mins.length; i++) {
+            if (mins[i] <= mins[i - 1]) {
+                throw invalidDefinition(what + "須依 min 遞增排列");
+            }
+        }
+    }
+
+    private <T> T require(T value, String message) {
+        if (value == null) {
+            throw invalidDefinition(message);
+        }
+        return value;
+    }
+
+    private IllegalStateException invalidDefinition(String message) {
+        return new IllegalStateException(type + " 量表定義錯誤: " + message);
+    }
+
+    private InvalidScaleAnswersException invalid(String reason) {
+        return new InvalidScaleAnswersException(type, reason);
+    }
+}
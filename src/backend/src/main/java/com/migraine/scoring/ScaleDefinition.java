@@ -0,0 +1,90 @@
+package com.migraine.scoring;
+
+import com.migraine.entity.HealthScale;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 量表計分定義（classpath:scoring/{ScaleType}.json 的內容）
+ * 只在啟動時讀取一次，經 CompiledScale 編譯為陣列計分表後即不再使用；
+ * 修改計分規則時必須遞增 version，重新計分任務以此判斷哪些紀錄需要重算
+ */
+@Data
+@NoArgsConstructor
+public class ScaleDefinition {
+
+    private HealthScale.ScaleType scaleType;
+    private int version;
+    private String description;
+
+    /** CHOICE 題未另外指定時的選項計分（索引為選項值） */
+    private int[] points;
+
+    private List<Item> items;
+
+    /** 未指定時總分為所有題目分數相加 */
+    private List<Component> components;
+
+    private LevelBasis levelBasis = LevelBasis.TOTAL;
+    private List<Level> levels;
+
+    @Data
+    @NoArgsConstructor
+    public static class Item {
+        private String key;
+        private ItemKind kind = ItemKind.CHOICE;
+        private int[] points;
+        /** NUMBER 題的上限 */
+        private Double max;
+        /** NUMBER 題依數值區間換算分數；未指定時分數為數值本身（四捨五入） */
+        private List<Band> bands;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class Component {
+        private String label;
+        private ComponentKind kind = ComponentKind.SUM;
+        private List<String> items;
+        /** 依成分原始分數換算成分分數；未指定時直接使用原始分數 */
+        private List<Band> bands;
+    }
+
+    /**
+     * 數值 ≥ min 時適用的分數；同一組區間依 min 遞增排列
+     */
+    @Data
+    @NoArgsConstructor
+    public static class Band {
+        private double min;
+        private int points;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class Level {
+        private double min;
+        private String code;
+        /** 可含 {score}，代入總分 */
+        private String interpretation;
+    }
+
+    public enum ItemKind {
+        CHOICE,     // 選項值 0..n-1
+        NUMBER,     // 天數、分鐘、小時等數值
+        TIME,       // HH:mm，只供成分計算使用
+        YES_NO      // yes 計 1 分；未作答視為 no
+    }
+
+    public enum ComponentKind {
+        SUM,                // 題目分數相加
+        SLEEP_EFFICIENCY    // PSQI：睡眠時數 / 在床時間（items 依序為上床時間、起床時間、睡眠時數），以百分比換算
+    }
+
+    public enum LevelBasis {
+        TOTAL,          // 依總分判定等級
+        MAX_COMPONENT   // 依分數最高的成分判定等級（HADS 焦慮 / 憂鬱分量表）
+    }
+}
@@ -0,0 +1,7 @@
+package com.migraine.scoring;
+
+/**
+ * 量表計分結果（version 為使用的計分定義版本）
+ */
+public record ScaleScore(int score, String level, String interpretation, int version) {
+}
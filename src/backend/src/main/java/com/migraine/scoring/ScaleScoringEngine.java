@@ -0,0 +1,72 @@
+package com.migraine.scoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.migraine.entity.HealthScale;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 量表計分引擎
+ * 啟動時讀取 classpath:scoring/{ScaleType}.json 並編譯為不可變的陣列計分表（以 ScaleType.ordinal() 索引），
+ * 之後計分只做陣列存取；任一量表缺少定義或定義錯誤時應用程式無法啟動
+ */
+@Slf4j
+@Component
+public class ScaleScoringEngine {
+
+    private static final String DEFINITION_LOCATION = "scoring/%s.json";
+
+    private final CompiledScale[] scales;
+
+    public ScaleScoringEngine(ObjectMapper objectMapper) {
+        HealthScale.ScaleType[] types = HealthScale.ScaleType.values();
+        scales = new CompiledScale[types.length];
+        StringBuilder versions = new StringBuilder();
+        for (HealthScale.ScaleType type : types) {
+            ScaleDefinition definition = load(objectMapper, type);
+            if (definition.getScaleType() != type) {
+                throw new IllegalStateException("量表定義 " + type + ".json 的 scaleType 不符: " + definition.getScaleType());
+            }
+            scales[type.ordinal()] = CompiledScale.compile(definition);
+            versions.append(versions.isEmpty() ? "" : ", ").append(type).append(" v").append(definition.getVersion());
+        }
+        log.info("Loaded scale scoring definitions: {}", versions);
+    }
+
+    private static ScaleDefinition load(ObjectMapper objectMapper, HealthScale.ScaleType type) {
+        try (InputStream in = new ClassPathResource(DEFINITION_LOCATION.formatted(type)).getInputStream()) {
+            return objectMapper.readValue(in, ScaleDefinition.class);
+        } catch (IOException ex) {
+            throw new IllegalStateException("無法讀取量表定義 " + type + ".json", ex);
+        }
+    }
+
+    /**
+     * 依目前定義計分；答案無效時拋出 InvalidScaleAnswersException
+     */
+    public ScaleScore score(HealthScale.ScaleType type, String answers) {
+        return scales[type.ordinal()].score(answers);
+    }
+
+    /**
+     * 目前使用的計分定義版本
+     */
+    public int version(HealthScale.ScaleType type) {
+        return scales[type.ordinal()].version;
+    }
+
+    /**
+     * 依答案計分並寫回實體（score、level、interpretation、scoringVersion）
+     */
+    public void apply(HealthScale scale) {
+        ScaleScore result = score(scale.getScaleType(), scale.getAnswers());
+        scale.setScore(result.score());
+        scale.setLevel(result.level());
+        scale.setInterpretation(result.interpretation());
+        scale.setScoringVersion(result.version());
+    }
+}
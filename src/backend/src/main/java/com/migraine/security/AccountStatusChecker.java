@@ -0,0 +1,54 @@
+package com.migraine.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.migraine.entity.User;
+import com.migraine.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 帳號狀態檢查（無狀態 JWT 模式使用）
+ * 每個用戶的啟用狀態與角色最多快取 status-check-ttl 毫秒（逾時即移除，容量有上限），
+ * 停用帳號或變更角色後，舊 Token 最晚在此時間窗內失效
+ */
+@Component
+public class AccountStatusChecker {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, CachedStatus> statusCache;
+
+    public AccountStatusChecker(
+            UserRepository userRepository,
+            @Value("${jwt.stateless-principal.status-check-ttl:30000}") long statusCheckTtl, // 預設 30 秒
+            @Value("${jwt.stateless-principal.status-cache-size:10000}") long statusCacheSize) {
+        this.userRepository = userRepository;
+        this.statusCache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(statusCheckTtl))
+                .maximumSize(statusCacheSize)
+                .build();
+    }
+
+    /**
+     * 檢查用戶是否仍啟用，且角色與 Token 內的角色一致
+     */
+    public boolean isAllowed(Long userId, User.UserRole tokenRole) {
+        CachedStatus status = statusCache.get(userId, id -> userRepository.findAccountStatusById(id)
+                .map(s -> new CachedStatus(Boolean.TRUE.equals(s.getIsActive()), s.getRole()))
+                .orElseGet(() -> new CachedStatus(false, null)));
+
+        return status.active() && status.role() == tokenRole;
+    }
+
+    /**
+     * 立即移除快取的狀態（本節點上的帳號異動可即時生效）
+     */
+    public void evict(Long userId) {
+        statusCache.invalidate(userId);
+    }
+
+    private record CachedStatus(boolean active, User.UserRole role) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.migraine.security;
+
+import com.migraine.entity.User.UserRole;
+import lombok.Getter;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collections;
+
+/**
+ * 由 JWT Claims 直接還原的已認證用戶（不含密碼，不需查詢資料庫）
+ */
+@Getter
+public class AuthenticatedUser extends User {
+
+    private final Long id;
+    private final UserRole role;
+
+    public AuthenticatedUser(Long id, String email, UserRole role, boolean active) {
+        super(email, "", active, true, true, true,
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.name())));
+        this.id = id;
+        this.role = role;
+    }
+}
@@ -0,0 +1,39 @@
+package com.migraine.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 以 SHA-256 摘要比對的 PasswordEncoder，只用於監控抓取帳號
+ * 抓取密碼為設定檔中的隨機金鑰而非用戶密碼，不需 BCrypt 的慢雜湊；
+ * 每次抓取只計算一次摘要並以固定時間比較，不佔用登入共用的 BCrypt 執行緒池
+ */
+public class DigestPasswordEncoder implements PasswordEncoder {
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return HexFormat.of().formatHex(digest(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(encode(rawPassword).getBytes(StandardCharsets.US_ASCII),
+                encodedPassword.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static byte[] digest(CharSequence rawPassword) {
+        try {
+            return MessageDigest.getInstance("SHA-256")
+                    .digest(rawPassword.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+}
@@ -1,8 +1,15 @@
 package com.migraine.security;
 
+import com.migraine.entity.User;
 import io.jsonwebtoken.*;
+import io.jsonwebtoken.io.DecodingException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.WeakKeyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -10,18 +17,69 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JWT Token 提供者
+ * 簽章金鑰與 JwtParser 於啟動時建立一次，之後所有請求共用（兩者皆為執行緒安全）
  */
 @Component
 public class JwtTokenProvider {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_ACTIVE = "active";
+    private static final String EVENT_INVALID_TOKEN = "jwt_rejected";
 
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+    private final SecretKey signingKey;
+    private final JwtParser jwtParser;
+    private final long jwtExpiration;
+    private final Timer validTokenTimer;
+    private final Timer invalidTokenTimer;
+    private final SecurityEventLogger securityLog;
+
+    @Autowired
+    public JwtTokenProvider(
+            @Value("${jwt.secret}") String jwtSecret,
+            @Value("${jwt.expiration}") long jwtExpiration,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.security-log.max-events:20}") int securityLogMaxEvents,
+            @Value("${jwt.security-log.window:60000}") long securityLogWindow
+    ) {
+        this.signingKey = signingKey(jwtSecret);
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        this.jwtExpiration = jwtExpiration;
+        this.validTokenTimer = verifyTimer(meterRegistry, "valid");
+        this.invalidTokenTimer = verifyTimer(meterRegistry, "invalid");
+        this.securityLog = new SecurityEventLogger(securityLogMaxEvents, securityLogWindow);
+    }
+
+    public JwtTokenProvider(String jwtSecret, long jwtExpiration) {
+        this(jwtSecret, jwtExpiration, Metrics.globalRegistry, 20, 60000);
+    }
+
+    /**
+     * jwt.secret 須為 Base64 編碼、解碼後至少 256 bits；否則啟動失敗並指出設定項目
+     */
+    private static SecretKey signingKey(String jwtSecret) {
+        try {
+            return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        } catch (DecodingException ex) {
+            throw new IllegalStateException("jwt.secret（JWT_SECRET）不是有效的 Base64 字串，請以 openssl rand -base64 64 產生", ex);
+        } catch (WeakKeyException ex) {
+            throw new IllegalStateException("jwt.secret（JWT_SECRET）解碼後長度不足 256 bits", ex);
+        }
+    }
+
+    private static Timer verifyTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("jwt.verify")
+                .description("JWT 解析與簽章驗證時間")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
 
     /**
      * 生成 JWT Token
@@ -35,49 +93,87 @@ public class JwtTokenProvider {
                 .subject(userDetails.getUsername())
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     /**
-     * 從 Token 中獲取用戶名
+     * 生成帶有用戶 ID、角色與啟用狀態的 JWT Token（供無狀態模式還原身分）
      */
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public String generateToken(User user) {
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
-        return claims.getSubject();
+        return Jwts.builder()
+                .subject(user.getEmail())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLE, user.getRole().name())
+                .claim(CLAIM_ACTIVE, user.getIsActive())
+                .issuedAt(now)
+                .expiration(expiryDate)
+                .signWith(signingKey)
+                .compact();
     }
 
     /**
-     * 驗證 Token
+     * 解析並驗證 Token，僅做一次簽章驗證
+     *
+     * @return 驗證通過的 Claims；Token 無效時回傳 empty
      */
-    public boolean validateToken(String token) {
+    public Optional<Claims> parseToken(String token) {
+        long start = System.nanoTime();
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (SecurityException ex) {
-            System.err.println("Invalid JWT signature");
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            validTokenTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.of(claims);
+        } catch (io.jsonwebtoken.security.SecurityException ex) {
+            securityLog.warn(EVENT_INVALID_TOKEN, "invalid_signature");
         } catch (MalformedJwtException ex) {
-            System.err.println("Invalid JWT token");
+            securityLog.warn(EVENT_INVALID_TOKEN, "malformed");
         } catch (ExpiredJwtException ex) {
-            System.err.println("Expired JWT token");
+            securityLog.warn(EVENT_INVALID_TOKEN, "expired");
         } catch (UnsupportedJwtException ex) {
-            System.err.println("Unsupported JWT token");
+            securityLog.warn(EVENT_INVALID_TOKEN, "unsupported");
         } catch (IllegalArgumentException ex) {
-            System.err.println("JWT claims string is empty");
+            securityLog.warn(EVENT_INVALID_TOKEN, "empty_claims");
+        } catch (JwtException ex) {
+            securityLog.warn(EVENT_INVALID_TOKEN, "invalid");
+        }
+        invalidTokenTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return Optional.empty();
+    }
+
+    /**
+     * 從已驗證的 Claims 還原用戶身分
+     *
+     * @return Token 未攜帶用戶 ID 或角色（舊版 Token）時回傳 empty
+     */
+    public Optional<AuthenticatedUser> getPrincipalFromClaims(Claims claims) {
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (userId == null || role == null) {
+            return Optional.empty();
         }
-        return false;
+
+        return Optional.of(new AuthenticatedUser(
+                userId,
+                claims.getSubject(),
+                User.UserRole.valueOf(role),
+                !Boolean.FALSE.equals(claims.get(CLAIM_ACTIVE, Boolean.class))
+        ));
     }
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * 從 Token 中獲取用戶名
+     */
+    public String getUsernameFromToken(String token) {
+        return jwtParser.parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    /**
+     * 驗證 Token
+     */
+    public boolean validateToken(String token) {
+        return parseToken(token).isPresent();
     }
 }
@@ -0,0 +1,50 @@
+package com.migraine.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 安全事件日誌（結構化欄位 event / reason，並限制記錄頻率）
+ * 每個時間窗最多記錄 maxEvents 筆，其餘只計數，於下一筆記錄時以 suppressed 欄位帶出，
+ * 避免大量無效 Token 請求灌爆日誌；不記錄 Token 內容
+ */
+public class SecurityEventLogger {
+
+    private static final Logger log = LoggerFactory.getLogger("com.migraine.security.events");
+
+    private final int maxEvents;
+    private final long windowMillis;
+    private final AtomicLong windowStart = new AtomicLong();
+    private final AtomicInteger eventsInWindow = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public SecurityEventLogger(int maxEvents, long windowMillis) {
+        this.maxEvents = maxEvents;
+        this.windowMillis = windowMillis;
+    }
+
+    public void warn(String event, String reason) {
+        long now = System.currentTimeMillis();
+        long start = windowStart.get();
+        if (now - start >= windowMillis && windowStart.compareAndSet(start, now)) {
+            eventsInWindow.set(0);
+        }
+
+        if (eventsInWindow.incrementAndGet() > maxEvents) {
+            suppressed.incrementAndGet();
+            return;
+        }
+
+        log.atWarn()
+                .setMessage("Security event {}: {}")
+                .addArgument(event)
+                .addArgument(reason)
+                .addKeyValue("event", event)
+                .addKeyValue("reason", reason)
+                .addKeyValue("suppressed", suppressed.getAndSet(0))
+                .log();
+    }
+}
@@ -0,0 +1,38 @@
+package com.migraine.security;
+
+import com.migraine.config.CacheConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * UserDetails 快取（僅供 JWT 過濾器使用）
+ * 登入流程仍直接使用 CustomUserDetailsService，以取得最新的密碼雜湊
+ */
+@Component
+@RequiredArgsConstructor
+public class UserDetailsCache {
+
+    private final CustomUserDetailsService userDetailsService;
+
+    /**
+     * 載入 UserDetails，快取內容不保留密碼雜湊
+     */
+    @Cacheable(cacheNames = CacheConfig.USER_DETAILS_CACHE, key = "#email")
+    public UserDetails loadUserByUsername(String email) {
+        UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+        return User.withUserDetails(userDetails)
+                .password("")
+                .build();
+    }
+
+    /**
+     * 移除指定用戶的快取
+     */
+    @CacheEvict(cacheNames = CacheConfig.USER_DETAILS_CACHE, key = "#email")
+    public void evict(String email) {
+    }
+}
@@ -2,15 +2,14 @@ package com.migraine.service;
 
 import com.migraine.dto.*;
 import com.migraine.entity.User;
+import com.migraine.mapper.UserMapper;
 import com.migraine.repository.UserRepository;
 import com.migraine.security.JwtTokenProvider;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
  * 認證服務
@@ -23,25 +22,26 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
+    private final UserMapper userMapper;
 
     /**
      * 用戶登入
+     * 不開交易：BCrypt 驗證（可能在雜湊執行緒池排隊數秒）期間不佔用資料庫連線，
+     * 讀取用戶與重新雜湊後的 UPDATE 各自只在執行語句時取得連線
      */
-    @Transactional(readOnly = true)
     public AuthResponse login(AuthRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
+        authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         request.getEmail(),
                         request.getPassword()
                 )
         );
 
-        String token = tokenProvider.generateToken(authentication);
-
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("找不到用戶"));
 
-        UserDTO userDTO = convertToDTO(user);
+        String token = tokenProvider.generateToken(user);
+        UserDTO userDTO = userMapper.toDTO(user);
 
         return AuthResponse.builder()
                 .token(token)
@@ -51,8 +51,9 @@ public class AuthService {
 
     /**
      * 用戶註冊
+     * 不開交易：與登入相同，BCrypt 排隊與計算期間不佔用資料庫連線；
+     * 檢查 Email 與 save 各自只在執行語句時取得連線（同時註冊同一 Email 時由唯一約束擋下）
      */
-    @Transactional
     public AuthResponse register(RegisterRequest request) {
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new RuntimeException("Email 已被註冊");
@@ -72,35 +73,13 @@ public class AuthService {
 
         user = userRepository.save(user);
 
-        // 自動登入
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getEmail(),
-                        request.getPassword()
-                )
-        );
-
-        String token = tokenProvider.generateToken(authentication);
-        UserDTO userDTO = convertToDTO(user);
+        // 自動登入：密碼剛以 encode 雜湊過，不需再執行一次 BCrypt 驗證
+        String token = tokenProvider.generateToken(user);
+        UserDTO userDTO = userMapper.toDTO(user);
 
         return AuthResponse.builder()
                 .token(token)
                 .user(userDTO)
                 .build();
     }
-
-    private UserDTO convertToDTO(User user) {
-        return UserDTO.builder()
-                .id(user.getId())
-                .email(user.getEmail())
-                .name(user.getName())
-                .role(user.getRole().name())
-                .phone(user.getPhone())
-                .gender(user.getGender())
-                .age(user.getAge())
-                .patientId(user.getPatientId())
-                .isActive(user.getIsActive())
-                .createdAt(user.getCreatedAt())
-                .build();
-    }
 }
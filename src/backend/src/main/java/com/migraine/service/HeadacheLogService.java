@@ -1,17 +1,43 @@
 package com.migraine.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.migraine.cache.CachedHistory;
+import com.migraine.cache.HistoryCache;
+import com.migraine.dto.CursorPageDTO;
+import com.migraine.dto.HeadacheLogBatchResponse;
+import com.migraine.dto.HeadacheLogChangesDTO;
 import com.migraine.dto.HeadacheLogDTO;
+import com.migraine.dto.HeadacheLogTombstoneDTO;
 import com.migraine.entity.HeadacheLog;
 import com.migraine.entity.User;
+import com.migraine.mapper.HeadacheLogMapper;
 import com.migraine.repository.HeadacheLogRepository;
 import com.migraine.repository.UserRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * 頭痛日誌服務
@@ -22,40 +48,171 @@ public class HeadacheLogService {
 
     private final HeadacheLogRepository headacheLogRepository;
     private final UserRepository userRepository;
+    private final HeadacheRollupService headacheRollupService;
+    private final HeadacheTagService headacheTagService;
+    private final HistoryCache<HeadacheLogDTO> historyCache;
+    private final HeadacheLogMapper headacheLogMapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int STREAM_FLUSH_INTERVAL = 500;
+
+    /** 增量同步往回重疊的時間，涵蓋 updated_at 已寫入但查詢當下尚未提交的交易 */
+    @Value("${sync.delta.overlap:5s}")
+    private Duration syncOverlap;
 
     /**
      * 創建頭痛日誌
      */
     @Transactional
     public HeadacheLogDTO createLog(Long userId, HeadacheLogDTO dto) {
+        // 帶有冪等鍵的重送請求直接回傳既有紀錄
+        if (dto.getClientId() != null) {
+            Optional<HeadacheLog> existing = headacheLogRepository.findByUserIdAndClientId(userId, dto.getClientId());
+            if (existing.isPresent()) {
+                return headacheLogMapper.toDTO(existing.get());
+            }
+        }
+
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("找不到用戶"));
 
-        HeadacheLog log = HeadacheLog.builder()
-                .user(user)
-                .logDate(dto.getLogDate())
-                .intensity(dto.getIntensity())
-                .symptoms(dto.getSymptoms())
-                .medication(dto.getMedication())
-                .notes(dto.getNotes())
-                .durationHours(dto.getDurationHours())
-                .location(dto.getLocation())
-                .triggers(dto.getTriggers())
-                .build();
+        HeadacheLog log = headacheLogRepository.saveAndFlush(headacheLogMapper.toEntity(dto, user));
+        headacheTagService.syncTags(List.of(log));
+        headacheRollupService.refreshDay(userId, log.getLogDate().toLocalDate());
+        historyCache.evict(userId);
+        return headacheLogMapper.toDTO(log);
+    }
+
+    /**
+     * 批次創建頭痛日誌（離線日誌同步）
+     * 用戶只查詢一次，所有日誌以 JDBC 批次 INSERT 寫入；已存在的冪等鍵會被略過
+     */
+    @Transactional
+    public HeadacheLogBatchResponse createLogs(Long userId, List<HeadacheLogDTO> dtos) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("找不到用戶"));
+
+        Set<String> clientIds = dtos.stream()
+                .map(HeadacheLogDTO::getClientId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> seenClientIds = clientIds.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(headacheLogRepository.findExistingClientIds(userId, clientIds));
+
+        List<HeadacheLog> logs = new ArrayList<>(dtos.size());
+        List<String> duplicateClientIds = new ArrayList<>();
+        for (HeadacheLogDTO dto : dtos) {
+            if (dto.getClientId() != null && !seenClientIds.add(dto.getClientId())) {
+                duplicateClientIds.add(dto.getClientId());
+                continue;
+            }
+            logs.add(headacheLogMapper.toEntity(dto, user));
+        }
 
-        log = headacheLogRepository.save(log);
-        return convertToDTO(log);
+        if (!logs.isEmpty()) {
+            headacheLogRepository.saveAll(logs);
+            headacheLogRepository.flush();
+            headacheTagService.syncTags(logs);
+
+            LocalDate firstDay = logs.stream().map(l -> l.getLogDate().toLocalDate()).min(LocalDate::compareTo).get();
+            LocalDate lastDay = logs.stream().map(l -> l.getLogDate().toLocalDate()).max(LocalDate::compareTo).get();
+            headacheRollupService.refreshRange(userId, firstDay, lastDay);
+            historyCache.evict(userId);
+        }
+
+        return HeadacheLogBatchResponse.builder()
+                .created(headacheLogMapper.toDTOs(logs))
+                .duplicateClientIds(duplicateClientIds)
+                .build();
     }
 
     /**
      * 獲取用戶所有日誌
      */
-    @Transactional(readOnly = true)
     public List<HeadacheLogDTO> getUserLogs(Long userId) {
-        return headacheLogRepository.findByUserIdOrderByLogDateDesc(userId)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return getUserLogHistory(userId).items();
+    }
+
+    /**
+     * 獲取用戶所有日誌與其 ETag（經快取讀取，命中時不取得資料庫連線）
+     */
+    public CachedHistory<HeadacheLogDTO> getUserLogHistory(Long userId) {
+        return historyCache.get(userId, () -> headacheLogRepository.findDTOsByUserId(userId));
+    }
+
+    /**
+     * 增量同步：since 之後新增、修改與刪除的日誌
+     * 回傳的 syncedAt 為下次同步的 since；查詢範圍往回重疊 sync.delta.overlap，客戶端依 id 覆寫即可
+     */
+    @Transactional(readOnly = true)
+    public HeadacheLogChangesDTO getChangesSince(Long userId, LocalDateTime since) {
+        LocalDateTime syncedAt = LocalDateTime.now();
+        LocalDateTime from = since.minus(syncOverlap);
+
+        List<HeadacheLogDTO> changed = headacheLogRepository.findDTOsChangedSince(userId, from);
+        List<HeadacheLogTombstoneDTO> deleted =
+                headacheLogMapper.toTombstoneDTOs(headacheLogRepository.findTombstonesSince(userId, from));
+
+        return HeadacheLogChangesDTO.builder()
+                .changed(changed)
+                .deleted(deleted)
+                .syncedAt(syncedAt)
+                .build();
+    }
+
+    /**
+     * 以 (logDate, id) 游標分頁獲取用戶日誌
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<HeadacheLogDTO> getUserLogsPage(Long userId, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // 多取一筆用來判斷是否還有下一頁
+        PageRequest limit = PageRequest.ofSize(pageSize + 1);
+
+        List<HeadacheLog> logs;
+        if (cursor == null || cursor.isEmpty()) {
+            logs = headacheLogRepository.findByUserIdOrderByLogDateDescIdDesc(userId, limit);
+        } else {
+            LogCursor position = decodeCursor(cursor);
+            logs = headacheLogRepository.findPageAfter(userId, position.logDate(), position.id(), limit);
+        }
+
+        boolean hasMore = logs.size() > pageSize;
+        List<HeadacheLogDTO> items = headacheLogMapper.toDTOs(hasMore ? logs.subList(0, pageSize) : logs);
+
+        HeadacheLogDTO last = items.isEmpty() ? null : items.get(items.size() - 1);
+        return CursorPageDTO.<HeadacheLogDTO>builder()
+                .items(items)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? encodeCursor(last.getLogDate(), last.getId()) : null)
+                .build();
+    }
+
+    /**
+     * 以 NDJSON 串流輸出用戶所有日誌，逐筆讀取、寫出後即從持久化上下文移除，記憶體用量與筆數無關
+     */
+    @Transactional(readOnly = true)
+    public void streamUserLogs(Long userId, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(HeadacheLogDTO.class);
+
+        try (Stream<HeadacheLog> logs = headacheLogRepository.streamByUserId(userId)) {
+            Iterator<HeadacheLog> iterator = logs.iterator();
+            int count = 0;
+            while (iterator.hasNext()) {
+                HeadacheLog log = iterator.next();
+                out.write(writer.writeValueAsBytes(headacheLogMapper.toDTO(log)));
+                out.write('\n');
+                entityManager.detach(log);
+
+                if (++count % STREAM_FLUSH_INTERVAL == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
     }
 
     /**
@@ -63,10 +220,7 @@ public class HeadacheLogService {
      */
     @Transactional(readOnly = true)
     public List<HeadacheLogDTO> getLogsByDateRange(Long userId, LocalDateTime startDate, LocalDateTime endDate) {
-        return headacheLogRepository.findByUserIdAndLogDateBetweenOrderByLogDateDesc(userId, startDate, endDate)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return headacheLogRepository.findDTOsByUserIdAndLogDateBetween(userId, startDate, endDate);
     }
 
     /**
@@ -76,42 +230,53 @@ public class HeadacheLogService {
     public HeadacheLogDTO updateLog(Long logId, HeadacheLogDTO dto) {
         HeadacheLog log = headacheLogRepository.findById(logId)
                 .orElseThrow(() -> new RuntimeException("找不到日誌"));
+        LocalDate previousDay = log.getLogDate().toLocalDate();
+
+        headacheLogMapper.updateEntity(dto, log);
 
-        log.setLogDate(dto.getLogDate());
-        log.setIntensity(dto.getIntensity());
-        log.setSymptoms(dto.getSymptoms());
-        log.setMedication(dto.getMedication());
-        log.setNotes(dto.getNotes());
-        log.setDurationHours(dto.getDurationHours());
-        log.setLocation(dto.getLocation());
-        log.setTriggers(dto.getTriggers());
-
-        log = headacheLogRepository.save(log);
-        return convertToDTO(log);
+        log = headacheLogRepository.saveAndFlush(log);
+        headacheTagService.syncTags(List.of(log));
+
+        Long userId = log.getUser().getId();
+        LocalDate day = log.getLogDate().toLocalDate();
+        headacheRollupService.refreshDay(userId, day);
+        if (!day.equals(previousDay)) {
+            headacheRollupService.refreshDay(userId, previousDay);
+        }
+        historyCache.evict(userId);
+        return headacheLogMapper.toDTO(log);
     }
 
     /**
-     * 刪除日誌
+     * 刪除日誌（軟刪除，保留刪除標記供增量同步；標籤與統計彙總立即排除）
      */
     @Transactional
     public void deleteLog(Long logId) {
-        headacheLogRepository.deleteById(logId);
+        headacheLogRepository.findById(logId).ifPresent(log -> {
+            headacheTagService.removeTags(logId);
+            log.setDeletedAt(LocalDateTime.now());
+            headacheLogRepository.saveAndFlush(log);
+            headacheRollupService.refreshDay(log.getUser().getId(), log.getLogDate().toLocalDate());
+            historyCache.evict(log.getUser().getId());
+        });
     }
 
-    private HeadacheLogDTO convertToDTO(HeadacheLog log) {
-        return HeadacheLogDTO.builder()
-                .id(log.getId())
-                .userId(log.getUser().getId())
-                .logDate(log.getLogDate())
-                .intensity(log.getIntensity())
-                .symptoms(log.getSymptoms())
-                .medication(log.getMedication())
-                .notes(log.getNotes())
-                .durationHours(log.getDurationHours())
-                .location(log.getLocation())
-                .triggers(log.getTriggers())
-                .createdAt(log.getCreatedAt())
-                .updatedAt(log.getUpdatedAt())
-                .build();
+    private String encodeCursor(LocalDateTime logDate, Long id) {
+        String position = logDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private LogCursor decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\|");
+            return new LogCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new RuntimeException("無效的分頁游標");
+        }
+    }
+
+    private record LogCursor(LocalDateTime logDate, Long id) {
     }
 }
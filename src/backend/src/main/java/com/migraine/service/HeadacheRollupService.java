@@ -0,0 +1,96 @@
+package com.migraine.service;
+
+import com.migraine.repository.HeadacheDailyRollupRepository;
+import com.migraine.repository.HeadacheMonthlyRollupRepository;
+import com.migraine.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 頭痛彙總維護服務
+ * 日誌異動時只重算受影響的那一天（資料量為當天的日誌筆數）與其所屬月份（最多 31 筆每日彙總），
+ * 因此可正確處理刪除或修改後的最大值；
+ * 重算前先鎖定用戶列，同一用戶的並行寫入（如批次同步與單筆新增）依序重算，
+ * 後者取得鎖後才讀取日誌，看得到前者已提交的資料，也不會兩者都 DELETE 後重複 INSERT
+ */
+@Service
+@RequiredArgsConstructor
+public class HeadacheRollupService {
+
+    private final HeadacheDailyRollupRepository dailyRollupRepository;
+    private final HeadacheMonthlyRollupRepository monthlyRollupRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${rollup.rebuild-batch-size:100}")
+    private int rebuildBatchSize;
+
+    /**
+     * 重算用戶某一天及其所屬月份的彙總（須在日誌異動的同一交易內呼叫）
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refreshDay(Long userId, LocalDate day) {
+        refreshRange(userId, day, day);
+    }
+
+    /**
+     * 重算用戶日期區間 [firstDay, lastDay] 及其涵蓋月份的彙總（批次寫入時使用，只需一組語句）
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refreshRange(Long userId, LocalDate firstDay, LocalDate lastDay) {
+        userRepository.lockIdRange(userId, userId);
+
+        LocalDate end = lastDay.plusDays(1);
+        dailyRollupRepository.deleteByUserIdAndDateRange(userId, firstDay, end);
+        dailyRollupRepository.insertFromLogs(userId, firstDay.atStartOfDay(), end.atStartOfDay());
+
+        LocalDate monthStart = firstDay.withDayOfMonth(1);
+        LocalDate monthEnd = lastDay.withDayOfMonth(1).plusMonths(1);
+        monthlyRollupRepository.deleteByUserIdAndMonthRange(
+                userId, yearMonthKey(monthStart), yearMonthKey(lastDay));
+        monthlyRollupRepository.insertFromDaily(userId, monthStart, monthEnd);
+    }
+
+    private int yearMonthKey(LocalDate date) {
+        return date.getYear() * 100 + date.getMonthValue();
+    }
+
+    /**
+     * 從原始日誌重建所有彙總
+     * 依用戶 ID 分批，每批在獨立交易內於資料庫完成，應用程式記憶體用量只與批次大小有關
+     *
+     * @return 處理的用戶數
+     */
+    public int rebuildAll() {
+        long afterId = 0L;
+        int processed = 0;
+
+        while (true) {
+            List<Long> userIds = userRepository.findIdsAfter(afterId, PageRequest.ofSize(rebuildBatchSize));
+            if (userIds.isEmpty()) {
+                return processed;
+            }
+
+            Long firstUserId = userIds.get(0);
+            Long lastUserId = userIds.get(userIds.size() - 1);
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.lockIdRange(firstUserId, lastUserId);
+                dailyRollupRepository.deleteByUserIdRange(firstUserId, lastUserId);
+                dailyRollupRepository.insertFromLogsForUserIdRange(firstUserId, lastUserId);
+                monthlyRollupRepository.deleteByUserIdRange(firstUserId, lastUserId);
+                monthlyRollupRepository.insertFromDailyForUserIdRange(firstUserId, lastUserId);
+            });
+
+            afterId = lastUserId;
+            processed += userIds.size();
+        }
+    }
+}
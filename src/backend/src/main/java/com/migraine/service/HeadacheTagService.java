@@ -0,0 +1,184 @@
+package com.migraine.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.migraine.entity.HeadacheLog;
+import com.migraine.entity.HeadacheLogTag;
+import com.migraine.entity.HeadacheTag;
+import com.migraine.repository.HeadacheLogTagRepository;
+import com.migraine.repository.HeadacheTagRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 頭痛日誌標籤維護服務
+ * 日誌的症狀、誘發因素、用藥、疼痛部位文字仍原樣保存供顯示，
+ * 另拆分為字典代碼寫入 headache_log_tags 供統計查詢
+ */
+@Service
+public class HeadacheTagService {
+
+    private static final Pattern ITEM_SEPARATOR = Pattern.compile("[,，、]");
+    private static final int MAX_NAME_LENGTH = 100;
+
+    private final HeadacheTagRepository tagRepository;
+    private final HeadacheLogTagRepository logTagRepository;
+    private final EntityManager entityManager;
+
+    /** 已提交的字典代碼快取（項目來自用戶輸入的文字，以容量上限避免無限成長） */
+    private final Cache<TagKey, Short> tagIds;
+
+    public HeadacheTagService(
+            HeadacheTagRepository tagRepository,
+            HeadacheLogTagRepository logTagRepository,
+            EntityManager entityManager,
+            @Value("${tags.cache-size:10000}") long tagCacheSize
+    ) {
+        this.tagRepository = tagRepository;
+        this.logTagRepository = logTagRepository;
+        this.entityManager = entityManager;
+        this.tagIds = Caffeine.newBuilder()
+                .maximumSize(tagCacheSize)
+                .build();
+    }
+
+    /**
+     * 重寫日誌的標籤（須在日誌異動的同一交易內、日誌已 flush 後呼叫）
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void syncTags(Collection<HeadacheLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        logTagRepository.deleteByLogIds(logs.stream().map(HeadacheLog::getId).toList());
+        Map<TagKey, Short> resolved = preloadTagIds(logs);
+
+        List<HeadacheLogTag> rows = new ArrayList<>();
+        for (HeadacheLog log : logs) {
+            addRows(rows, resolved, log, HeadacheTag.Category.SYMPTOM, log.getSymptoms());
+            addRows(rows, resolved, log, HeadacheTag.Category.TRIGGER, log.getTriggers());
+            addRows(rows, resolved, log, HeadacheTag.Category.MEDICATION, log.getMedication());
+            addRows(rows, resolved, log, HeadacheTag.Category.LOCATION, log.getLocation());
+        }
+        // 關聯列使用指定的複合主鍵，saveAll 會走 merge 並逐列先 SELECT；舊列已刪除，直接 persist
+        rows.forEach(entityManager::persist);
+    }
+
+    /**
+     * 移除日誌的標籤（刪除日誌前呼叫）
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeTags(Long logId) {
+        logTagRepository.deleteByLogIds(List.of(logId));
+    }
+
+    /**
+     * 收集這批日誌用到的字典代碼：先查快取，其餘以一次查詢載入（重啟後快取為空時避免每個項目各查一次）
+     */
+    private Map<TagKey, Short> preloadTagIds(Collection<HeadacheLog> logs) {
+        Map<TagKey, Short> resolved = new HashMap<>();
+        Set<TagKey> unknown = new HashSet<>();
+        for (HeadacheLog log : logs) {
+            collect(resolved, unknown, HeadacheTag.Category.SYMPTOM, log.getSymptoms());
+            collect(resolved, unknown, HeadacheTag.Category.TRIGGER, log.getTriggers());
+            collect(resolved, unknown, HeadacheTag.Category.MEDICATION, log.getMedication());
+            collect(resolved, unknown, HeadacheTag.Category.LOCATION, log.getLocation());
+        }
+        if (!unknown.isEmpty()) {
+            Set<String> names = new HashSet<>();
+            unknown.forEach(key -> names.add(key.name()));
+            for (HeadacheTag tag : tagRepository.findByNameIn(names)) {
+                TagKey key = new TagKey(tag.getCategory(), tag.getName());
+                if (unknown.contains(key)) {
+                    resolved.put(key, tag.getId());
+                    tagIds.put(key, tag.getId());
+                }
+            }
+        }
+        return resolved;
+    }
+
+    private void collect(Map<TagKey, Short> resolved, Set<TagKey> unknown, HeadacheTag.Category category, String text) {
+        for (String name : split(text)) {
+            TagKey key = new TagKey(category, name);
+            Short id = tagIds.getIfPresent(key);
+            if (id != null) {
+                resolved.put(key, id);
+            } else {
+                unknown.add(key);
+            }
+        }
+    }
+
+    private void addRows(List<HeadacheLogTag> rows, Map<TagKey, Short> resolved, HeadacheLog log,
+                         HeadacheTag.Category category, String text) {
+        for (String name : split(text)) {
+            rows.add(HeadacheLogTag.builder()
+                    .logId(log.getId())
+                    .tagId(resolved.computeIfAbsent(new TagKey(category, name), this::loadOrCreate))
+                    .userId(log.getUser().getId())
+                    .logDate(log.getLogDate())
+                    .build());
+        }
+    }
+
+    /**
+     * 拆分逗號（含全形逗號、頓號）分隔的文字，去除空白與重複項目
+     */
+    static Set<String> split(String text) {
+        Set<String> items = new LinkedHashSet<>();
+        if (text == null || text.isBlank()) {
+            return items;
+        }
+        for (String item : ITEM_SEPARATOR.split(text)) {
+            String trimmed = item.trim();
+            if (!trimmed.isEmpty()) {
+                items.add(trimmed.length() > MAX_NAME_LENGTH ? trimmed.substring(0, MAX_NAME_LENGTH) : trimmed);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * 新項目在目前交易內以 INSERT ... ON CONFLICT DO NOTHING 寫入（不另取連線）；
+     * 其他交易同時新增同一項目時等其結束，已提交則改為讀取其代碼。
+     * 自行新增的代碼在提交後才放入快取，交易回滾時不會留下不存在的代碼
+     */
+    private Short loadOrCreate(TagKey key) {
+        return tagRepository.insertIfAbsent(key.category().name(), key.name())
+                .map(id -> {
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            tagIds.put(key, id);
+                        }
+                    });
+                    return id;
+                })
+                .orElseGet(() -> {
+                    Short id = tagRepository.findByCategoryAndName(key.category(), key.name())
+                            .map(HeadacheTag::getId)
+                            .orElseThrow(() -> new IllegalStateException("找不到標籤字典項目: " + key));
+                    tagIds.put(key, id);
+                    return id;
+                });
+    }
+
+    private record TagKey(HeadacheTag.Category category, String name) {
+    }
+}
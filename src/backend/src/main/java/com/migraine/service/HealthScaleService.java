@@ -1,16 +1,28 @@
 package com.migraine.service;
 
+import com.migraine.cache.CachedHistory;
+import com.migraine.cache.HistoryCache;
 import com.migraine.dto.HealthScaleDTO;
+import com.migraine.dto.HealthScaleSummaryDTO;
+import com.migraine.dto.LatestScaleScoreDTO;
+import com.migraine.dto.ScaleScoreMatrixDTO;
 import com.migraine.entity.HealthScale;
 import com.migraine.entity.User;
+import com.migraine.mapper.HealthScaleMapper;
 import com.migraine.repository.HealthScaleRepository;
 import com.migraine.repository.UserRepository;
+import com.migraine.scoring.ScaleScoringEngine;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * 健康量表服務
@@ -21,38 +33,47 @@ public class HealthScaleService {
 
     private final HealthScaleRepository healthScaleRepository;
     private final UserRepository userRepository;
+    private final HistoryCache<HealthScaleDTO> historyCache;
+    private final HealthScaleMapper healthScaleMapper;
+    private final ScaleScoringEngine scaleScoringEngine;
+
+    private static final int MAX_MATRIX_USERS = 1000;
 
     /**
-     * 創建量表記錄
+     * 創建量表記錄（分數、等級與判讀依答案於伺服器端計算）
      */
     @Transactional
     public HealthScaleDTO createScale(Long userId, HealthScaleDTO dto) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("找不到用戶"));
 
-        HealthScale scale = HealthScale.builder()
-                .user(user)
-                .scaleType(HealthScale.ScaleType.valueOf(dto.getScaleType()))
-                .testDate(dto.getTestDate())
-                .score(dto.getScore())
-                .level(dto.getLevel())
-                .answers(dto.getAnswers())
-                .interpretation(dto.getInterpretation())
-                .build();
-
+        HealthScale scale = healthScaleMapper.toEntity(dto, user);
+        scaleScoringEngine.apply(scale);
         scale = healthScaleRepository.save(scale);
-        return convertToDTO(scale);
+        historyCache.evict(userId);
+        return healthScaleMapper.toDTO(scale);
     }
 
     /**
      * 獲取用戶所有量表記錄
      */
-    @Transactional(readOnly = true)
     public List<HealthScaleDTO> getUserScales(Long userId) {
-        return healthScaleRepository.findByUserIdOrderByTestDateDesc(userId)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return getUserScaleHistory(userId).items();
+    }
+
+    /**
+     * 獲取用戶所有量表記錄與其 ETag（經快取讀取，命中時不取得資料庫連線）
+     */
+    public CachedHistory<HealthScaleDTO> getUserScaleHistory(Long userId) {
+        return historyCache.get(userId, () -> healthScaleRepository.findDTOsByUserId(userId));
+    }
+
+    /**
+     * 獲取用戶量表摘要（不含答案與判讀，供列表檢視使用）
+     */
+    @Transactional(readOnly = true)
+    public List<HealthScaleSummaryDTO> getUserScaleSummaries(Long userId) {
+        return healthScaleRepository.findSummariesByUserId(userId);
     }
 
     /**
@@ -61,23 +82,34 @@ public class HealthScaleService {
     @Transactional(readOnly = true)
     public List<HealthScaleDTO> getUserScalesByType(Long userId, String scaleType) {
         HealthScale.ScaleType type = HealthScale.ScaleType.valueOf(scaleType);
-        return healthScaleRepository.findByUserIdAndScaleTypeOrderByTestDateDesc(userId, type)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return healthScaleRepository.findDTOsByUserIdAndScaleType(userId, type);
     }
 
-    private HealthScaleDTO convertToDTO(HealthScale scale) {
-        return HealthScaleDTO.builder()
-                .id(scale.getId())
-                .userId(scale.getUser().getId())
-                .scaleType(scale.getScaleType().name())
-                .testDate(scale.getTestDate())
-                .score(scale.getScore())
-                .level(scale.getLevel())
-                .answers(scale.getAnswers())
-                .interpretation(scale.getInterpretation())
-                .createdAt(scale.getCreatedAt())
+    /**
+     * 多位用戶各量表最近一次結果的矩陣（一條 SQL，列順序與 userIds 相同）
+     */
+    @Transactional(readOnly = true)
+    public ScaleScoreMatrixDTO getLatestScoreMatrix(Collection<Long> userIds) {
+        if (userIds.size() > MAX_MATRIX_USERS) {
+            throw new RuntimeException("一次最多查詢 " + MAX_MATRIX_USERS + " 位用戶");
+        }
+        HealthScale.ScaleType[] types = HealthScale.ScaleType.values();
+        Map<Long, ScaleScoreMatrixDTO.Cell[]> cellsByUser = new LinkedHashMap<>();
+        for (Long userId : userIds) {
+            cellsByUser.put(userId, new ScaleScoreMatrixDTO.Cell[types.length]);
+        }
+
+        for (LatestScaleScoreDTO latest : healthScaleRepository.findLatestPerScaleType(cellsByUser.keySet())) {
+            cellsByUser.get(latest.getUserId())[HealthScale.ScaleType.valueOf(latest.getScaleType()).ordinal()] =
+                    new ScaleScoreMatrixDTO.Cell(latest.getScore(), latest.getLevel(), latest.getTestDate());
+        }
+
+        List<ScaleScoreMatrixDTO.Row> rows = new ArrayList<>(cellsByUser.size());
+        cellsByUser.forEach((userId, cells) ->
+                rows.add(new ScaleScoreMatrixDTO.Row(userId, Collections.unmodifiableList(Arrays.asList(cells)))));
+        return ScaleScoreMatrixDTO.builder()
+                .scaleTypes(Arrays.stream(types).map(Enum::name).toList())
+                .rows(rows)
                 .build();
     }
 }
@@ -0,0 +1,83 @@
+package com.migraine.service;
+
+import com.migraine.dto.CursorPageDTO;
+import com.migraine.dto.PatientRosterDTO;
+import com.migraine.dto.PatientRosterFilter;
+import com.migraine.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 病患名冊服務（醫師 / 個管師）
+ */
+@Service
+@RequiredArgsConstructor
+public class PatientService {
+
+    private final UserRepository userRepository;
+
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int HEADACHE_DAYS_WINDOW = 30;
+
+    /**
+     * 以游標分頁取得病患名冊；每頁只發一條 SQL，摘要欄位由子查詢一併取得
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<PatientRosterDTO> getRoster(PatientRosterFilter filter, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        RosterCursor position = cursor == null || cursor.isEmpty() ? null : decodeCursor(cursor, filter.getSort());
+        LocalDate headacheDaysFrom = LocalDate.now().minusDays(HEADACHE_DAYS_WINDOW - 1);
+
+        // 多取一筆用來判斷是否還有下一頁
+        List<PatientRosterDTO> rows = userRepository.findRosterPage(
+                filter,
+                position != null ? position.key() : null,
+                position != null ? position.id() : null,
+                headacheDaysFrom,
+                pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<PatientRosterDTO> items = hasMore ? rows.subList(0, pageSize) : rows;
+        PatientRosterDTO last = items.isEmpty() ? null : items.get(items.size() - 1);
+        return CursorPageDTO.<PatientRosterDTO>builder()
+                .items(items)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? encodeCursor(filter.getSort(), sortKey(filter.getSort(), last), last.getUserId()) : null)
+                .build();
+    }
+
+    private String sortKey(PatientRosterFilter.Sort sort, PatientRosterDTO row) {
+        if (sort == PatientRosterFilter.Sort.PATIENT_ID) {
+            return row.getPatientId() != null ? row.getPatientId() : "";
+        }
+        return row.getName();
+    }
+
+    private String encodeCursor(PatientRosterFilter.Sort sort, String key, Long id) {
+        String position = sort + "|" + id + "|" + key;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private RosterCursor decodeCursor(String cursor, PatientRosterFilter.Sort sort) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\|", 3);
+            if (PatientRosterFilter.Sort.valueOf(parts[0]) != sort) {
+                throw new RuntimeException("分頁游標與排序方式不符");
+            }
+            return new RosterCursor(parts[2], Long.valueOf(parts[1]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+            throw new RuntimeException("無效的分頁游標");
+        }
+    }
+
+    private record RosterCursor(String key, Long id) {
+    }
+}
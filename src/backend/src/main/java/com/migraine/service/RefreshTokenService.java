@@ -4,12 +4,21 @@ import com.migraine.entity.RefreshToken;
 import com.migraine.entity.User;
 import com.migraine.repository.RefreshTokenRepository;
 import com.migraine.repository.UserRepository;
+import com.migraine.security.UserDetailsCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -22,10 +31,15 @@ public class RefreshTokenService {
 
     private final RefreshTokenRepository refreshTokenRepository;
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${jwt.refresh-expiration:1209600000}") // 預設 14 天
     private long refreshTokenExpiration;
 
+    @Value("${jwt.refresh-reuse-grace:10000}") // 預設 10 秒，容許多個分頁同時刷新
+    private long reuseGracePeriod;
+
     /**
      * 創建 Refresh Token
      */
@@ -33,27 +47,33 @@ public class RefreshTokenService {
     public RefreshToken createRefreshToken(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("找不到用戶"));
+        return createRefreshToken(user);
+    }
 
-        // 生成唯一的 Token
+    private RefreshToken createRefreshToken(User user) {
+        // 生成唯一的 Token，資料庫只保存其雜湊值
         String token = UUID.randomUUID().toString();
-        
+        LocalDateTime now = LocalDateTime.now();
+
         RefreshToken refreshToken = RefreshToken.builder()
-                .token(token)
+                .tokenHash(hash(token))
                 .user(user)
-                .createdAt(LocalDateTime.now())
-                .expiresAt(LocalDateTime.now().plusSeconds(refreshTokenExpiration / 1000))
+                .createdAt(now)
+                .expiresAt(now.plusSeconds(refreshTokenExpiration / 1000))
                 .revoked(false)
                 .build();
 
-        return refreshTokenRepository.save(refreshToken);
+        refreshToken = refreshTokenRepository.save(refreshToken);
+        refreshToken.setToken(token);
+        return refreshToken;
     }
 
     /**
-     * 驗證 Refresh Token
+     * 驗證 Refresh Token（連同用戶一起載入，交易結束後仍可讀取用戶資料）
      */
     @Transactional(readOnly = true)
     public RefreshToken verifyRefreshToken(String token) {
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(token)
+        RefreshToken refreshToken = refreshTokenRepository.findWithUserByTokenHash(hash(token))
                 .orElseThrow(() -> new RuntimeException("無效的 Refresh Token"));
 
         if (!refreshToken.isValid()) {
@@ -65,18 +85,43 @@ public class RefreshTokenService {
 
     /**
      * 旋轉 Token（使用後立即失效舊 Token，並發新 Token）
+     * 以條件式 UPDATE ... RETURNING 撤銷舊 Token 並取得用戶 ID，只有取得回傳值的請求可以發新 Token，
+     * 多個分頁同時刷新時不會各自拿到有效的新 Token
      */
-    @Transactional
     public RefreshToken rotateRefreshToken(String oldToken) {
-        RefreshToken oldRefreshToken = verifyRefreshToken(oldToken);
-        
-        // 撤銷舊 Token
-        oldRefreshToken.setRevoked(true);
-        oldRefreshToken.setRevokedAt(LocalDateTime.now());
-        refreshTokenRepository.save(oldRefreshToken);
+        String tokenHash = hash(oldToken);
+
+        RefreshToken rotated = transactionTemplate.execute(status -> refreshTokenRepository
+                .revokeIfActive(tokenHash, LocalDateTime.now())
+                .map(userId -> createRefreshToken(userRepository.getReferenceById(userId)))
+                .orElse(null));
+        if (rotated != null) {
+            return rotated;
+        }
+
+        // 未取得旋轉權：Token 不存在、已過期，或已被使用過
+        RefreshToken existing = refreshTokenRepository.findByTokenHash(tokenHash)
+                .orElseThrow(() -> new RuntimeException("無效的 Refresh Token"));
+        if (Boolean.TRUE.equals(existing.getRevoked()) && existing.getRevokedAt() != null
+                && existing.getRevokedAt().isBefore(LocalDateTime.now().minus(reuseGracePeriod, ChronoUnit.MILLIS))) {
+            // 超過寬限期仍被重複使用，視為 Token 外洩，撤銷該用戶所有 Token
+            transactionTemplate.executeWithoutResult(status -> refreshTokenRepository
+                    .revokeAllByUserId(existing.getUser().getId(), LocalDateTime.now()));
+            throw new RuntimeException("Refresh Token 已被重複使用，請重新登入");
+        }
+        throw new RuntimeException("Refresh Token 已過期或已被撤銷");
+    }
 
-        // 創建新 Token
-        return createRefreshToken(oldRefreshToken.getUser().getEmail());
+    /**
+     * 計算 Token 的 SHA-256 雜湊（十六進位）
+     */
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
     }
 
     /**
@@ -88,13 +133,28 @@ public class RefreshTokenService {
                 .orElseThrow(() -> new RuntimeException("找不到用戶"));
         
         refreshTokenRepository.revokeAllByUser(user, LocalDateTime.now());
+        userDetailsCache.evict(email);
     }
 
     /**
-     * 清理過期的 Token（定時任務）
+     * 清除一批過期或已撤銷的 Token（由 RefreshTokenPurgeJob 分批呼叫）
+     *
+     * @return 本批刪除的筆數，小於 batchSize 代表已清除完畢
      */
     @Transactional
-    public void cleanupExpiredTokens() {
-        refreshTokenRepository.deleteExpiredTokens(LocalDateTime.now());
+    public int purgeBatch(LocalDateTime now, LocalDateTime revokedBefore, int batchSize) {
+        List<Long> ids = refreshTokenRepository.lockPurgeableIds(now, revokedBefore, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return refreshTokenRepository.deleteByIds(ids);
+    }
+
+    /**
+     * 最舊一筆尚未清除的過期 Token 的到期時間
+     */
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> findOldestExpiredAt(LocalDateTime now) {
+        return refreshTokenRepository.findOldestExpiresAtBefore(now);
     }
 }
@@ -0,0 +1,146 @@
+package com.migraine.service;
+
+import com.migraine.cache.HistoryCache;
+import com.migraine.dto.HealthScaleDTO;
+import com.migraine.entity.HealthScale;
+import com.migraine.exception.InvalidScaleAnswersException;
+import com.migraine.repository.HealthScaleRepository;
+import com.migraine.scoring.ScaleScoringEngine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 量表重新計分服務
+ * 計分定義 version 遞增後，將 scoring_version 與目前版本不同（含 NULL 的舊資料）的紀錄依答案重算；
+ * 單一執行緒依 ID 分頁（keyset）取得待處理 ID，每批交給執行緒池在獨立交易內讀取、計分並批次更新，
+ * 同時進行中的批次數有上限，記憶體用量只與批次大小與平行度有關
+ */
+@Slf4j
+@Service
+public class ScaleRescoreService {
+
+    private final HealthScaleRepository healthScaleRepository;
+    private final ScaleScoringEngine scaleScoringEngine;
+    private final HistoryCache<HealthScaleDTO> historyCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter rescoredCounter;
+    private final Counter failedCounter;
+
+    @Value("${scoring.rescore.batch-size:500}")
+    private int batchSize;
+
+    @Value("${scoring.rescore.parallelism:0}")
+    private int parallelism;
+
+    public ScaleRescoreService(HealthScaleRepository healthScaleRepository,
+                               ScaleScoringEngine scaleScoringEngine,
+                               HistoryCache<HealthScaleDTO> historyCache,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry) {
+        this.healthScaleRepository = healthScaleRepository;
+        this.scaleScoringEngine = scaleScoringEngine;
+        this.historyCache = historyCache;
+        this.transactionTemplate = transactionTemplate;
+        this.rescoredCounter = Counter.builder("health_scales.rescored")
+                .description("Health scales recomputed by the rescore job")
+                .tag("outcome", "rescored")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("health_scales.rescored")
+                .description("Health scales recomputed by the rescore job")
+                .tag("outcome", "invalid_answers")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 重新計分結果；failed 為答案無法依目前定義計分的紀錄數（保留原值，下次執行會再嘗試）
+     */
+    public record RescoreResult(int rescored, int failed) {
+    }
+
+    /**
+     * 重算所有計分版本過期的紀錄
+     */
+    public RescoreResult rescoreOutdated() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        Semaphore inFlight = new Semaphore(threads * 2);
+        AtomicInteger rescored = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        List<Future<?>> batches = new ArrayList<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (HealthScale.ScaleType type : HealthScale.ScaleType.values()) {
+                int version = scaleScoringEngine.version(type);
+                Long afterId = 0L;
+                while (true) {
+                    List<Long> ids = healthScaleRepository.findIdsToRescore(
+                            type, version, afterId, PageRequest.ofSize(batchSize));
+                    if (ids.isEmpty()) {
+                        break;
+                    }
+                    afterId = ids.get(ids.size() - 1);
+
+                    inFlight.acquire();
+                    batches.add(executor.submit(() -> {
+                        try {
+                            rescoreBatch(ids, rescored, failed);
+                        } finally {
+                            inFlight.release();
+                        }
+                    }));
+                }
+            }
+            for (Future<?> batch : batches) {
+                batch.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("重新計分被中斷", ex);
+        } catch (ExecutionException ex) {
+            throw new RuntimeException("重新計分失敗", ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return new RescoreResult(rescored.get(), failed.get());
+    }
+
+    /**
+     * 一個批次一個交易：讀取實體、計分，提交時以 JDBC 批次更新（hibernate.jdbc.batch_size），
+     * 提交後清除受影響用戶的歷史快取
+     */
+    private void rescoreBatch(List<Long> ids, AtomicInteger rescored, AtomicInteger failed) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<Long> userIds = new HashSet<>();
+            for (HealthScale scale : healthScaleRepository.findAllById(ids)) {
+                try {
+                    scaleScoringEngine.apply(scale);
+                    userIds.add(scale.getUser().getId());
+                    rescored.incrementAndGet();
+                    rescoredCounter.increment();
+                } catch (InvalidScaleAnswersException ex) {
+                    // 答案可能含病患資料，只記錄 ID
+                    log.warn("Health scale {} could not be rescored: invalid answers", scale.getId());
+                    failed.incrementAndGet();
+                    failedCounter.increment();
+                }
+            }
+            userIds.forEach(historyCache::evict);
+        });
+    }
+}
@@ -0,0 +1,80 @@
+package com.migraine.service;
+
+import com.migraine.dto.FrequencyDTO;
+import com.migraine.dto.MonthlyHeadacheStatsDTO;
+import com.migraine.dto.PatientHeadacheSummaryDTO;
+import com.migraine.entity.HeadacheTag;
+import com.migraine.repository.HeadacheLogRepository;
+import com.migraine.repository.HeadacheLogTagRepository;
+import com.migraine.repository.HeadacheMonthlyRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 頭痛統計服務
+ * 所有彙總皆以單一分組查詢於資料庫完成，日期區間為 [from, to]（含首尾兩日）
+ */
+@Service
+@RequiredArgsConstructor
+public class StatisticsService {
+
+    private final HeadacheLogRepository headacheLogRepository;
+    private final HeadacheMonthlyRollupRepository monthlyRollupRepository;
+    private final HeadacheLogTagRepository logTagRepository;
+
+    /**
+     * 單一病患每月統計（讀取每月彙總表，from/to 所在月份皆完整納入）
+     */
+    @Transactional(readOnly = true)
+    public List<MonthlyHeadacheStatsDTO> getMonthlyStats(Long userId, LocalDate from, LocalDate to) {
+        return monthlyRollupRepository.findStats(userId, yearMonthKey(from), yearMonthKey(to));
+    }
+
+    /**
+     * 群體統計：每位病患的區間摘要
+     */
+    @Transactional(readOnly = true)
+    public List<PatientHeadacheSummaryDTO> getCohortSummaries(LocalDate from, LocalDate to) {
+        return headacheLogRepository.getCohortSummaries(startOf(from), endOf(to));
+    }
+
+    /**
+     * 誘發因素出現次數（userId 為 null 時統計所有病患）
+     */
+    @Transactional(readOnly = true)
+    public List<FrequencyDTO> getTriggerFrequencies(Long userId, LocalDate from, LocalDate to) {
+        return getTagFrequencies(HeadacheTag.Category.TRIGGER, userId, from, to);
+    }
+
+    /**
+     * 用藥出現次數（userId 為 null 時統計所有病患）
+     */
+    @Transactional(readOnly = true)
+    public List<FrequencyDTO> getMedicationFrequencies(Long userId, LocalDate from, LocalDate to) {
+        return getTagFrequencies(HeadacheTag.Category.MEDICATION, userId, from, to);
+    }
+
+    private List<FrequencyDTO> getTagFrequencies(HeadacheTag.Category category, Long userId,
+                                                 LocalDate from, LocalDate to) {
+        return userId == null
+                ? logTagRepository.countCohortByCategory(category, startOf(from), endOf(to))
+                : logTagRepository.countByUserIdAndCategory(userId, category, startOf(from), endOf(to));
+    }
+
+    private int yearMonthKey(LocalDate date) {
+        return date.getYear() * 100 + date.getMonthValue();
+    }
+
+    private LocalDateTime startOf(LocalDate from) {
+        return from.atStartOfDay();
+    }
+
+    private LocalDateTime endOf(LocalDate to) {
+        return to.plusDays(1).atStartOfDay();
+    }
+}
@@ -0,0 +1,5 @@
+-- V10: 病患名冊
+-- 名冊依 (name, id) 排序並以游標分頁，部分索引只涵蓋啟用中的病患
+-- 各列摘要的子查詢分別使用 idx_headache_logs_user_date_id、headache_daily_rollups 主鍵與 idx_health_scales_user_id
+
+CREATE INDEX IF NOT EXISTS idx_users_patient_roster ON users(name, id) WHERE role = 'PATIENT' AND is_active = TRUE;
@@ -0,0 +1,9 @@
+-- V11: 每位病患各量表的最新分數
+-- DISTINCT ON (user_id, scale_type) 依 test_date DESC, id DESC 取第一筆，索引順序與之相同即不需排序；
+-- INCLUDE 分數與等級，取最新分數時不必回表讀取 answers / interpretation
+-- 取代 V1 的 idx_health_scales_user_type_date（前綴相同、缺少 id 決勝欄位）
+
+CREATE INDEX IF NOT EXISTS idx_health_scales_latest
+    ON health_scales(user_id, scale_type, test_date DESC, id DESC) INCLUDE (score, level);
+
+DROP INDEX IF EXISTS idx_health_scales_user_type_date;
@@ -0,0 +1,5 @@
+-- V12: 伺服器端計分定義版本
+-- 分數改由 ScaleScoringEngine 依 scoring/{ScaleType}.json 計算；NULL 為客戶端計分的舊資料，
+-- 與目前定義版本不同的紀錄由重新計分任務（scoring.rescore-on-startup）重算
+
+ALTER TABLE health_scales ADD COLUMN IF NOT EXISTS scoring_version INTEGER;
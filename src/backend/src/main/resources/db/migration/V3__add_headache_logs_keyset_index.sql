@@ -0,0 +1,7 @@
+-- V3: 頭痛日誌游標分頁索引
+-- 與 ORDER BY log_date DESC, id DESC 完全一致，分頁與串流查詢可直接依索引順序讀取
+
+CREATE INDEX IF NOT EXISTS idx_headache_logs_user_date_id ON headache_logs(user_id, log_date DESC, id DESC);
+
+-- 已被上述索引的前綴涵蓋
+DROP INDEX IF EXISTS idx_headache_logs_user_date;
@@ -0,0 +1,47 @@
+-- V4: 頭痛每日 / 每月彙總表（由應用程式隨日誌異動增量維護）
+
+CREATE TABLE IF NOT EXISTS headache_daily_rollups (
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    stat_date DATE NOT NULL,
+    log_count BIGINT NOT NULL,
+    intensity_sum BIGINT NOT NULL,
+    intensity_max INTEGER NOT NULL,
+    duration_sum BIGINT NOT NULL,
+    medication_count BIGINT NOT NULL,
+    severe_count BIGINT NOT NULL,
+    PRIMARY KEY (user_id, stat_date)
+);
+
+CREATE TABLE IF NOT EXISTS headache_monthly_rollups (
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    stat_year INTEGER NOT NULL,
+    stat_month INTEGER NOT NULL,
+    headache_days BIGINT NOT NULL,
+    log_count BIGINT NOT NULL,
+    intensity_sum BIGINT NOT NULL,
+    intensity_max INTEGER NOT NULL,
+    duration_sum BIGINT NOT NULL,
+    medication_days BIGINT NOT NULL,
+    severe_days BIGINT NOT NULL,
+    PRIMARY KEY (user_id, stat_year, stat_month)
+);
+
+-- 回填既有資料
+INSERT INTO headache_daily_rollups
+    (user_id, stat_date, log_count, intensity_sum, intensity_max, duration_sum, medication_count, severe_count)
+SELECT user_id, CAST(log_date AS DATE), COUNT(*), SUM(intensity), MAX(intensity),
+       COALESCE(SUM(duration_hours), 0),
+       SUM(CASE WHEN medication <> '' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN intensity >= 7 THEN 1 ELSE 0 END)
+FROM headache_logs
+GROUP BY user_id, CAST(log_date AS DATE);
+
+INSERT INTO headache_monthly_rollups
+    (user_id, stat_year, stat_month, headache_days, log_count, intensity_sum, intensity_max,
+     duration_sum, medication_days, severe_days)
+SELECT user_id, EXTRACT(YEAR FROM stat_date), EXTRACT(MONTH FROM stat_date), COUNT(*), SUM(log_count),
+       SUM(intensity_sum), MAX(intensity_max), SUM(duration_sum),
+       SUM(CASE WHEN medication_count > 0 THEN 1 ELSE 0 END),
+       SUM(CASE WHEN severe_count > 0 THEN 1 ELSE 0 END)
+FROM headache_daily_rollups
+GROUP BY user_id, EXTRACT(YEAR FROM stat_date), EXTRACT(MONTH FROM stat_date);
@@ -0,0 +1,9 @@
+-- V5: 批次上傳日誌
+-- 1. 序列每次配置 50 個 ID（對應實體的 allocationSize），讓 Hibernate 可批次 INSERT
+-- 2. client_id 為客戶端產生的冪等鍵，同一用戶不可重複
+
+ALTER SEQUENCE IF EXISTS headache_logs_id_seq INCREMENT BY 50;
+
+ALTER TABLE headache_logs ADD COLUMN IF NOT EXISTS client_id VARCHAR(64);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_headache_logs_user_client_id ON headache_logs(user_id, client_id);
@@ -0,0 +1,64 @@
+-- V6: 症狀 / 誘發因素 / 用藥 / 疼痛部位改以字典代碼 + 關聯表存放
+-- 日誌表原有文字欄位保留作為顯示內容，統計改查 headache_log_tags
+
+CREATE TABLE IF NOT EXISTS headache_tags (
+    id SMALLSERIAL PRIMARY KEY,
+    category VARCHAR(20) NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    CONSTRAINT uk_headache_tags_category_name UNIQUE (category, name)
+);
+
+CREATE TABLE IF NOT EXISTS headache_log_tags (
+    log_id BIGINT NOT NULL REFERENCES headache_logs(id) ON DELETE CASCADE,
+    tag_id SMALLINT NOT NULL REFERENCES headache_tags(id),
+    user_id BIGINT NOT NULL,
+    log_date TIMESTAMP NOT NULL,
+    PRIMARY KEY (log_id, tag_id)
+);
+
+-- 單一病患統計：依用戶與日期區間掃描；群體統計：依日期區間掃描（皆為僅索引掃描）
+CREATE INDEX IF NOT EXISTS idx_headache_log_tags_user_date_tag ON headache_log_tags(user_id, log_date, tag_id);
+CREATE INDEX IF NOT EXISTS idx_headache_log_tags_date_tag_user ON headache_log_tags(log_date, tag_id, user_id);
+
+-- 依日誌 ID 區間分批回填既有資料（每批 10000 筆），控制每個語句的拆分量與暫存表大小
+DO $$
+DECLARE
+    batch_size CONSTANT BIGINT := 10000;
+    next_id BIGINT;
+    max_id BIGINT;
+BEGIN
+    SELECT COALESCE(MIN(id), 0), COALESCE(MAX(id), -1) INTO next_id, max_id FROM headache_logs;
+
+    CREATE TEMP TABLE tmp_log_items (
+        log_id BIGINT, user_id BIGINT, log_date TIMESTAMP, category VARCHAR(20), name VARCHAR(100)
+    ) ON COMMIT DROP;
+
+    WHILE next_id <= max_id LOOP
+        TRUNCATE tmp_log_items;
+
+        INSERT INTO tmp_log_items
+        SELECT DISTINCT h.id, h.user_id, h.log_date, c.category, LEFT(TRIM(item), 100)
+        FROM headache_logs h
+        CROSS JOIN LATERAL (VALUES
+            ('SYMPTOM', h.symptoms),
+            ('TRIGGER', h.triggers),
+            ('MEDICATION', h.medication),
+            ('LOCATION', h.location)
+        ) AS c(category, text)
+        CROSS JOIN LATERAL regexp_split_to_table(c.text, '[,，、]') AS item
+        WHERE h.id >= next_id AND h.id < next_id + batch_size
+          AND TRIM(item) <> '';
+
+        INSERT INTO headache_tags (category, name)
+        SELECT DISTINCT category, name FROM tmp_log_items
+        ON CONFLICT (category, name) DO NOTHING;
+
+        INSERT INTO headache_log_tags (log_id, tag_id, user_id, log_date)
+        SELECT DISTINCT i.log_id, t.id, i.user_id, i.log_date
+        FROM tmp_log_items i
+        JOIN headache_tags t ON t.category = i.category AND t.name = i.name
+        ON CONFLICT DO NOTHING;
+
+        next_id := next_id + batch_size;
+    END LOOP;
+END $$;
@@ -0,0 +1,4 @@
+-- V8: Refresh Token 分批清除
+-- 過期條件走既有的 idx_refresh_tokens_expires_at；已撤銷條件使用部分索引，只涵蓋已撤銷的列
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_revoked_at ON refresh_tokens(revoked_at) WHERE revoked = TRUE;
@@ -0,0 +1,9 @@
+-- V9: 頭痛日誌增量同步
+-- 1. 刪除改為軟刪除，deleted_at 作為增量同步的刪除標記
+-- 2. 增量查詢依 (user_id, updated_at) 範圍掃描；舊資料的 updated_at 以 created_at 補齊
+
+ALTER TABLE headache_logs ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+
+UPDATE headache_logs SET updated_at = created_at WHERE updated_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_headache_logs_user_updated ON headache_logs(user_id, updated_at);
@@ -1,4 +1,5 @@
--- 測試資料（僅供開發環境使用）
+-- 測試資料（僅供開發環境使用，spring.flyway.locations 加上 classpath:db/seed 時載入）
+-- Repeatable 遷移：內容變更後會重新執行一次，INSERT 須可重複執行
 -- 密碼都是 "password123" 經過 BCrypt 加密
 
 -- 插入測試用戶
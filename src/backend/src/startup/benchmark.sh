@@ -0,0 +1,83 @@
+#!/usr/bin/env bash
+# 啟動時間與記憶體基準：一般 JAR / AOT / AOT + AppCDS / 原生映像
+#
+# 量測從啟動程序到 /auth/health 第一次回應 200 的時間，以及當下的 RSS（/proc/<pid>/status 的 VmRSS）
+# 需求：可連線且已完成遷移的 PostgreSQL（此處不在啟動時執行 Flyway）
+#   SPRING_DATASOURCE_URL / SPRING_DATASOURCE_USERNAME / SPRING_DATASOURCE_PASSWORD 指向測試資料庫
+# 未建置的模式會略過：
+#   mvn package -DskipTests                          → jar
+#   mvn -Pfast-start package -DskipTests             → aot、aot-cds
+#   mvn -Pnative native:compile -DskipTests（GraalVM）→ native
+#
+# 用法：src/startup/benchmark.sh [每種模式的次數]
+set -euo pipefail
+
+cd "$(dirname "$0")/../.."
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+RUNS="${1:-5}"
+HEALTH="http://localhost:8080/api/auth/health"
+ARGS=(--spring.flyway.enabled=false --spring.jpa.show-sql=false --logging.level.root=WARN
+      --cors.allowed-origins=http://localhost:3000 --cors.allowed-methods=GET,POST,PUT,DELETE --cors.allowed-headers=*)
+export DB_MIGRATE_ON_STARTUP=false
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+# 啟動一次，輸出「毫秒 RSS(KB)」
+measure() {
+    local log="$1"; shift
+    local start pid code elapsed rss
+    start=$(date +%s%N)
+    "$@" "${ARGS[@]}" > "$log" 2>&1 &
+    pid=$!
+
+    while true; do
+        code=$(curl -s -o /dev/null -w '%{http_code}' --max-time 1 "$HEALTH" || true)
+        [ "$code" = "200" ] && break
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "啟動失敗，請見 $log" >&2
+            return 1
+        fi
+        sleep 0.02
+    done
+    elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+    rss=$(awk '/^VmRSS:/ { print $2 }' "/proc/$pid/status")
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$elapsed $rss"
+}
+
+run_mode() {
+    local label="$1"; shift
+    local times=() rsses=() result
+    for i in $(seq 1 "$RUNS"); do
+        result=$(measure "target/startup-$label.log" "$@")
+        times+=("${result% *}")
+        rsses+=("${result#* }")
+    done
+    printf '%-10s %12s %12s   (%s)\n' "$label" \
+        "$(printf '%s\n' "${times[@]}" | median)" \
+        "$(( $(printf '%s\n' "${rsses[@]}" | median) / 1024 ))" \
+        "${times[*]}"
+}
+
+printf '%-10s %12s %12s   %s\n' mode "first-200 ms" "RSS MB" "(each run, ms)"
+
+JAR=$(ls target/migraine-care-system-*.jar 2>/dev/null | grep -v fast-start | head -1 || true)
+[ -n "$JAR" ] && run_mode jar "$JAVA" -jar "$JAR"
+
+FAST_START=target/fast-start
+FAST_JAR=$(ls $FAST_START/*-fast-start.jar 2>/dev/null | head -1 || true)
+if [ -n "$FAST_JAR" ]; then
+    # CDS 封存檔記錄訓練時的類別路徑，必須在同一目錄以相同的相對路徑啟動，否則整個封存檔會被停用
+    FAST_JAR=$(basename "$FAST_JAR")
+    run_mode aot env -C "$FAST_START" "$JAVA" -Dspring.aot.enabled=true -jar "$FAST_JAR"
+    [ -f "$FAST_START/app.jsa" ] && run_mode aot-cds env -C "$FAST_START" "$JAVA" -XX:SharedArchiveFile=app.jsa \
+        -Dspring.aot.enabled=true -jar "$FAST_JAR"
+fi
+
+[ -x target/migraine-care-system ] && run_mode native target/migraine-care-system
+
+exit 0